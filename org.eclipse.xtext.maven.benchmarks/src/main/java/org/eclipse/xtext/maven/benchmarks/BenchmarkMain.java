@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the JMH benchmarks and writes the results as JSON to
+ * <code>jmh-result.json</code>, unless a result format or file is given.
+ * 
+ * @since 2.31
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		List<String> arguments = new ArrayList<>(Arrays.asList(args));
+		if (!arguments.contains("-rf") && !arguments.contains("-rff")) {
+			arguments.addAll(Arrays.asList("-rf", "json", "-rff", "jmh-result.json"));
+		}
+		Main.main(arguments.toArray(new String[0]));
+	}
+
+}
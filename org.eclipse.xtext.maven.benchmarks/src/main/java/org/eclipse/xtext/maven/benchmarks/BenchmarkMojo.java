@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.benchmarks;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.maven.AbstractXtextMojo;
+
+/**
+ * Exposes the protected setup steps of {@link AbstractXtextMojo} to the
+ * benchmarks.
+ * 
+ * @since 2.31
+ */
+public class BenchmarkMojo extends AbstractXtextMojo {
+
+	@Override
+	public void execute() {
+	}
+
+	/**
+	 * Calls {@link AbstractXtextMojo#addToPlatformResourceMap(String, URI)}.
+	 */
+	public void register(String name, URI uri) {
+		addToPlatformResourceMap(name, uri);
+	}
+
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.xtext.maven.trace.ClassFileDebugSourceExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+/**
+ * {@link ClassFileDebugSourceExtractor#getDebugSourceFileName(File)} over all
+ * class files of an output directory.
+ * 
+ * @since 2.31
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DebugSourceExtractorBenchmark {
+
+	@Param({ "100", "1000" })
+	private int classFiles;
+
+	private Path directory;
+
+	private List<File> files;
+
+	private final ClassFileDebugSourceExtractor extractor = new ClassFileDebugSourceExtractor();
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("debug-source-benchmark");
+		files = SyntheticClassFiles.writeClassFiles(directory, classFiles);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+	}
+
+	@Benchmark
+	public void getDebugSourceFileName(Blackhole blackhole) throws IOException {
+		for (File file : files) {
+			blackhole.consume(extractor.getDebugSourceFileName(file));
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.xtext.maven.CachingLanguageAccessFactory;
+import org.eclipse.xtext.maven.InjectorCache;
+import org.eclipse.xtext.maven.Language;
+import org.eclipse.xtext.maven.MavenStandaloneBuilderModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * The setup cost of a generator execution: creating the builder and language
+ * injectors, with and without the {@link InjectorCache} of the session, and
+ * filling the platform resource map.
+ * 
+ * @since 2.31
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MojoSetupBenchmark {
+
+	@Param({ "100" })
+	private int projects;
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+	private final InjectorCache sessionCache = new InjectorCache();
+
+	private List<Language> languages;
+
+	private BenchmarkMojo mojo;
+
+	@Setup
+	public void setUp() {
+		Language language = new Language();
+		language.setSetup("org.eclipse.xtext.xbase.XbaseStandaloneSetup");
+		languages = Collections.singletonList(language);
+		mojo = new BenchmarkMojo();
+	}
+
+	@Benchmark
+	public Object createInjectors() {
+		return createInjectors(new InjectorCache());
+	}
+
+	@Benchmark
+	public Object createInjectorsCached() {
+		return createInjectors(sessionCache);
+	}
+
+	private Object createInjectors(InjectorCache cache) {
+		CachingLanguageAccessFactory languageAccessFactory = new CachingLanguageAccessFactory(cache);
+		Injector injector = cache.acquire(MavenStandaloneBuilderModule.class.getName(), classLoader,
+				() -> Guice.createInjector(new MavenStandaloneBuilderModule()));
+		try {
+			return languageAccessFactory.createLanguageAccess(languages, classLoader);
+		} finally {
+			languageAccessFactory.release();
+			cache.release(injector);
+		}
+	}
+
+	/**
+	 * Empties the platform resource map before every invocation, so that each
+	 * one registers all projects instead of finding them present.
+	 */
+	@State(Scope.Thread)
+	public static class EmptyPlatformResourceMap {
+
+		@Setup(Level.Invocation)
+		public void clear() {
+			EcorePlugin.getPlatformResourceMap().clear();
+		}
+	}
+
+	@Benchmark
+	public Object fillPlatformResourceMap(EmptyPlatformResourceMap emptyMap) {
+		for (int i = 0; i < projects; i++) {
+			mojo.register("project" + i, URI.createFileURI("/synthetic/project" + i + "/"));
+		}
+		return EcorePlugin.getPlatformResourceMap();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.xtext.maven.Language;
+import org.eclipse.xtext.maven.OutputConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The conversion of the Maven output configurations in
+ * {@link Language#getOutputConfigurations()}.
+ * 
+ * @since 2.31
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutputConfigurationBenchmark {
+
+	@Param({ "1", "10" })
+	private int outputConfigurations;
+
+	@Param({ "0", "10" })
+	private int sourceMappings;
+
+	private Language language;
+
+	@Setup
+	public void setUp() {
+		List<OutputConfiguration> configurations = new ArrayList<>();
+		for (int i = 0; i < outputConfigurations; i++) {
+			OutputConfiguration configuration = new OutputConfiguration();
+			configuration.setName("output" + i);
+			configuration.setOutputDirectory("src-gen/output" + i);
+			List<OutputConfiguration.SourceMapping> mappings = new ArrayList<>();
+			for (int j = 0; j < sourceMappings; j++) {
+				OutputConfiguration.SourceMapping mapping = new OutputConfiguration.SourceMapping();
+				mapping.setSourceFolder("src/folder" + j);
+				mapping.setOutputDirectory("src-gen/folder" + j);
+				mappings.add(mapping);
+			}
+			configuration.setSourceMappings(mappings);
+			configurations.add(configuration);
+		}
+		language = new Language();
+		language.setSetup("org.eclipse.xtext.xbase.XbaseStandaloneSetup");
+		language.setOutputConfigurations(Collections.unmodifiableList(configurations));
+	}
+
+	@Benchmark
+	public Object getOutputConfigurations() {
+		return language.getOutputConfigurations();
+	}
+
+}
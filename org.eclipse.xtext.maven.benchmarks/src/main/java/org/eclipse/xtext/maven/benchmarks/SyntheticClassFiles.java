@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.xtext.generator.trace.AbstractTraceRegion;
+import org.eclipse.xtext.generator.trace.SourceRelativeURI;
+import org.eclipse.xtext.generator.trace.TraceRegion;
+import org.eclipse.xtext.generator.trace.TraceRegionSerializer;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Creates class files with line numbers and the matching trace files, the
+ * input of the debug information installation, without running the
+ * generator.
+ * 
+ * @since 2.31
+ */
+public class SyntheticClassFiles {
+
+	public static final String FILE_EXTENSION = "mydsl";
+
+	private static final int LINES = 20;
+
+	/**
+	 * Writes <code>count</code> classes <code>Synthetic&lt;n&gt;</code> in the
+	 * package <code>synthetic</code> to the given directory.
+	 * 
+	 * @return the class files
+	 */
+	public static List<File> writeClassFiles(Path directory, int count) throws IOException {
+		Path packageDirectory = Files.createDirectories(directory.resolve("synthetic"));
+		List<File> result = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String name = "Synthetic" + i;
+			Path classFile = packageDirectory.resolve(name + ".class");
+			Files.write(classFile, createClass("synthetic/" + name, name + ".java"));
+			result.add(classFile.toFile());
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the trace file <code>.Synthetic&lt;n&gt;.java._trace</code> of each
+	 * class file next to it.
+	 * 
+	 * @return the trace files in the order of the class files
+	 */
+	public static List<File> writeTraceFiles(List<File> classFiles, TraceRegionSerializer serializer)
+			throws IOException {
+		List<File> result = new ArrayList<>();
+		for (File classFile : classFiles) {
+			String name = classFile.getName().substring(0, classFile.getName().length() - ".class".length());
+			File traceFile = new File(classFile.getParentFile(), "." + name + ".java._trace");
+			try (OutputStream out = Files.newOutputStream(traceFile.toPath())) {
+				serializer.writeTraceRegionTo(createTrace("synthetic/" + name + "." + FILE_EXTENSION), out);
+			}
+			result.add(traceFile);
+		}
+		return result;
+	}
+
+	private static byte[] createClass(String internalName, String sourceFile) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+		writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC, internalName, null, "java/lang/Object", null);
+		writer.visitSource(sourceFile, null);
+		MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "run", "()I", null,
+				null);
+		method.visitCode();
+		method.visitInsn(Opcodes.ICONST_0);
+		method.visitVarInsn(Opcodes.ISTORE, 0);
+		for (int line = 1; line <= LINES; line++) {
+			Label label = new Label();
+			method.visitLabel(label);
+			method.visitLineNumber(line, label);
+			method.visitIincInsn(0, line);
+		}
+		method.visitVarInsn(Opcodes.ILOAD, 0);
+		method.visitInsn(Opcodes.IRETURN);
+		method.visitMaxs(0, 0);
+		method.visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	private static AbstractTraceRegion createTrace(String sourcePath) {
+		SourceRelativeURI source = new SourceRelativeURI(sourcePath);
+		TraceRegion root = new TraceRegion(0, LINES * 10, 0, LINES, true, 0, LINES * 5, 0, LINES, source, null);
+		for (int line = 0; line < LINES; line++) {
+			new TraceRegion(line * 10, 10, line, line, true, line * 5, 5, line, line, source, root);
+		}
+		return root;
+	}
+
+}
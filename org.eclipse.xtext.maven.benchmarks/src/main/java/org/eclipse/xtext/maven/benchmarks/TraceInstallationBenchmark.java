@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.xtext.generator.trace.AbstractTraceRegion;
+import org.eclipse.xtext.generator.trace.ITraceToBytecodeInstaller;
+import org.eclipse.xtext.generator.trace.TraceAsPrimarySourceInstaller;
+import org.eclipse.xtext.generator.trace.TraceAsSmapInstaller;
+import org.eclipse.xtext.generator.trace.TraceFileNameProvider;
+import org.eclipse.xtext.generator.trace.TraceRegionSerializer;
+import org.eclipse.xtext.maven.MavenStandaloneBuilderModule;
+import org.eclipse.xtext.maven.trace.ClassFileDebugSourceExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Trace deserialization and installation into the class files, the steps of
+ * {@code AbstractInstallDebugInfoMojo.installTrace}.
+ * 
+ * @since 2.31
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TraceInstallationBenchmark {
+
+	@Param({ "100", "1000" })
+	private int classFiles;
+
+	@Param({ "smap", "primarySource" })
+	private String installer;
+
+	private Path directory;
+
+	private List<File> classFileList;
+
+	private List<File> traceFileList;
+
+	private Injector injector;
+
+	private TraceRegionSerializer traceRegionSerializer;
+
+	private TraceFileNameProvider traceFileNameProvider;
+
+	private final ClassFileDebugSourceExtractor extractor = new ClassFileDebugSourceExtractor();
+
+	private final Set<String> fileExtensions = Collections.singleton(SyntheticClassFiles.FILE_EXTENSION);
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		injector = Guice.createInjector(new MavenStandaloneBuilderModule());
+		traceRegionSerializer = injector.getInstance(TraceRegionSerializer.class);
+		traceFileNameProvider = injector.getInstance(TraceFileNameProvider.class);
+		directory = Files.createTempDirectory("trace-installation-benchmark");
+		classFileList = SyntheticClassFiles.writeClassFiles(directory, classFiles);
+		traceFileList = SyntheticClassFiles.writeTraceFiles(classFileList, traceRegionSerializer);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+	}
+
+	@Benchmark
+	public void readTraces(Blackhole blackhole) throws IOException {
+		for (File traceFile : traceFileList) {
+			blackhole.consume(readTrace(traceFile));
+		}
+	}
+
+	@Benchmark
+	public void installTraces(Blackhole blackhole) throws IOException {
+		ITraceToBytecodeInstaller traceInstaller = createInstaller();
+		for (int i = 0; i < classFileList.size(); i++) {
+			File traceFile = traceFileList.get(i);
+			File classFile = classFileList.get(i);
+			AbstractTraceRegion traceRegion = readTrace(traceFile);
+			if (!fileExtensions.contains(traceRegion.getAssociatedSrcRelativePath().getURI().fileExtension())) {
+				continue;
+			}
+			traceInstaller.setTrace(traceFileNameProvider.getJavaFromTrace(traceFile.getName()), traceRegion);
+			byte[] bytecodeWithTraces = traceInstaller.installTrace(Files.readAllBytes(classFile.toPath()));
+			if (bytecodeWithTraces != null) {
+				Files.write(classFile.toPath(), bytecodeWithTraces);
+			}
+			blackhole.consume(bytecodeWithTraces);
+		}
+	}
+
+	/**
+	 * Extracts the source file name and installs the trace, reading each class
+	 * file twice, as before 2.31. Run with <code>-prof gc</code> to compare the
+	 * allocation with {@link #extractAndInstallReadingOnce(Blackhole)}.
+	 */
+	@Benchmark
+	public void extractAndInstallReadingTwice(Blackhole blackhole) throws IOException {
+		ITraceToBytecodeInstaller traceInstaller = createInstaller();
+		for (int i = 0; i < classFileList.size(); i++) {
+			File classFile = classFileList.get(i);
+			blackhole.consume(extractor.getDebugSourceFileName(Files.readAllBytes(classFile.toPath())));
+			install(traceInstaller, traceFileList.get(i), classFile, Files.readAllBytes(classFile.toPath()),
+					blackhole);
+		}
+	}
+
+	/**
+	 * Extracts the source file name and installs the trace from the same bytes.
+	 */
+	@Benchmark
+	public void extractAndInstallReadingOnce(Blackhole blackhole) throws IOException {
+		ITraceToBytecodeInstaller traceInstaller = createInstaller();
+		for (int i = 0; i < classFileList.size(); i++) {
+			File classFile = classFileList.get(i);
+			byte[] bytecode = Files.readAllBytes(classFile.toPath());
+			blackhole.consume(extractor.getDebugSourceFileName(bytecode));
+			install(traceInstaller, traceFileList.get(i), classFile, bytecode, blackhole);
+		}
+	}
+
+	private void install(ITraceToBytecodeInstaller traceInstaller, File traceFile, File classFile, byte[] bytecode,
+			Blackhole blackhole) throws IOException {
+		traceInstaller.setTrace(traceFileNameProvider.getJavaFromTrace(traceFile.getName()), readTrace(traceFile));
+		byte[] bytecodeWithTraces = traceInstaller.installTrace(bytecode);
+		if (bytecodeWithTraces != null) {
+			Files.write(classFile.toPath(), bytecodeWithTraces);
+		}
+		blackhole.consume(bytecodeWithTraces);
+	}
+
+	private AbstractTraceRegion readTrace(File traceFile) throws IOException {
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(traceFile.toPath()))) {
+			return traceRegionSerializer.readTraceRegionFrom(in);
+		}
+	}
+
+	private ITraceToBytecodeInstaller createInstaller() {
+		if ("primarySource".equals(installer)) {
+			return injector.getInstance(TraceAsPrimarySourceInstaller.class);
+		}
+		return injector.getInstance(TraceAsSmapInstaller.class);
+	}
+
+}
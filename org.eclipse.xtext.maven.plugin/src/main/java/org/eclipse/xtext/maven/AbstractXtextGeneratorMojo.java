@@ -9,27 +9,50 @@
 package org.eclipse.xtext.maven;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.plugin.EcorePlugin;
 import org.eclipse.xtext.builder.standalone.LanguageAccess;
-import org.eclipse.xtext.builder.standalone.LanguageAccessFactory;
-import org.eclipse.xtext.builder.standalone.StandaloneBuilder;
-import org.eclipse.xtext.builder.standalone.compiler.CompilerConfiguration;
-import org.eclipse.xtext.builder.standalone.compiler.IJavaCompiler;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
 import org.eclipse.xtext.util.Strings;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 
 import com.google.common.base.Predicate;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
 
 /**
  * @author Dennis Huebner - Initial contribution and API
@@ -102,18 +125,98 @@ public abstract class AbstractXtextGeneratorMojo extends AbstractXtextMojo {
 	@Parameter(defaultValue = "false")
 	private Boolean compilerPreserveInformationAboutFormalParameters;
 
+	/**
+	 * Glob patterns of the model files in the source roots to build, relative to
+	 * the source root, e.g. <code>**&#47;*.mydsl</code>. All models are built if
+	 * empty.
+	 */
+	@Parameter
+	private List<String> includes;
+
+	/**
+	 * Glob patterns of the files and directories in the source roots to skip,
+	 * relative to the source root, e.g. <code>**&#47;generated&#47;**</code>.
+	 * Excluded directories are not entered when the source roots are scanned.
+	 * Excluded models aren't built, but can't be referenced by the built ones
+	 * either. Source roots without included models are not handed to the
+	 * builder at all.
+	 */
+	@Parameter
+	private List<String> excludes;
+
 	/**
 	 * RegEx expression to filter class path during model files look up
 	 */
 	@Parameter
 	private String classPathLookupFilter;
 
+	/**
+	 * Use a persistent index of the file extensions contained in the class path
+	 * jars to exclude unchanged jars without model files from the model file look
+	 * up, so they are never opened again.
+	 */
+	@Parameter(property = "xtext.useClasspathIndex", defaultValue = "true")
+	private Boolean useClasspathIndex = Boolean.TRUE;
+
+	/**
+	 * Location of the class path model index. By default it is shared by all
+	 * builds using the same local repository.
+	 */
+	@Parameter(property = "xtext.classpathIndexFile", defaultValue = "${settings.localRepository}/.cache/xtext/classpath-model-index.properties")
+	private File classpathIndexFile;
+
+	/**
+	 * Let generate write the index of its source models to the tmpClassDirectory
+	 * and let testGenerate use it for the models in the main output directory,
+	 * instead of loading and indexing them again. The index is only used if the
+	 * models in the output directory are unchanged.
+	 */
+	@Parameter(property = "xtext.reuseMainIndex", defaultValue = "true")
+	private Boolean reuseMainIndex = Boolean.TRUE;
+
+	/**
+	 * Only create the injectors of the languages that have files in the source
+	 * roots or on the class path, or that are required by such a language. The
+	 * file extensions of a language are taken from its configuration or from the
+	 * language file extension index, languages with unknown file extensions are
+	 * always used. The index only covers setups loaded from jars and is keyed by
+	 * their modification time and size, so languages built in the same reactor
+	 * are always used. Jars on the class path are checked with the class path model
+	 * index, without it all languages are used.
+	 */
+	@Parameter(property = "xtext.skipUnusedLanguages", defaultValue = "true")
+	private Boolean skipUnusedLanguages = Boolean.TRUE;
+
+	/**
+	 * Location of the index of the file extensions of the language setups. By
+	 * default it is shared by all builds using the same local repository.
+	 */
+	@Parameter(property = "xtext.languageIndexFile", defaultValue = "${settings.localRepository}/.cache/xtext/language-file-extensions.properties")
+	private File languageIndexFile;
+
+	/**
+	 * Read the resource descriptions that upstream jars ship at
+	 * {@value PrecomputedResourceDescriptions#LOCATION} (see goal
+	 * export-resource-descriptions) instead of loading and indexing their models.
+	 * The models are only loaded when a cross reference to them is resolved.
+	 */
+	@Parameter(property = "xtext.usePrecomputedResourceDescriptions", defaultValue = "false")
+	private Boolean usePrecomputedResourceDescriptions = Boolean.FALSE;
+
 	/**
 	 * Clustering configuration to avoid OOME
 	 */
 	@Parameter
 	private ClusteringConfig clusteringConfig;
 
+	/**
+	 * Directory of the profiles the adaptive and dependency based clustering
+	 * keep between runs, one per project and goal. It is outside of the build
+	 * directory, so the profiles survive <code>mvn clean</code>.
+	 */
+	@Parameter(property = "xtext.clustering.profileDirectory", defaultValue = "${settings.localRepository}/.cache/xtext/clustering")
+	private File clusteringProfileDirectory;
+
 	/**
 	 * if enabled the plugin will scan the project and its siblings and add them to
 	 * the platform resource map automatically
@@ -134,7 +237,128 @@ public abstract class AbstractXtextGeneratorMojo extends AbstractXtextMojo {
 	 */
 	@Parameter(defaultValue = "false")
 	private Boolean incrementalXtextBuild = Boolean.FALSE;
-	
+
+	/**
+	 * Skip the generation if a fingerprint of all inputs (source roots, java
+	 * source roots, class path, languages, output configurations, compiler
+	 * settings and plugin dependencies) matches the one of the last successful
+	 * run. The fingerprint is stored in the tmpClassDirectory.
+	 */
+	@Parameter(property = "xtext.skipUnchanged", defaultValue = "false")
+	private Boolean skipUnchanged = Boolean.FALSE;
+
+	/**
+	 * Look up the outputs in a local build cache, keyed by a hash of the content
+	 * of all inputs (source roots, java source roots, class path, languages,
+	 * output configurations, compiler settings and plugin dependencies). On a hit
+	 * the output directories are restored from the cache instead of running the
+	 * builder, on a miss they are stored after a successful run. The temporary
+	 * directory with the stub classes and the main scope index is cached as well.
+	 * Files that aren't part of the cached outputs are deleted from the output
+	 * directories of the output configurations with cleanUpDerivedResources.
+	 */
+	@Parameter(property = "xtext.buildCache", defaultValue = "false")
+	private Boolean useBuildCache = Boolean.FALSE;
+
+	/**
+	 * Location of the build cache. Point it to a shared file system to reuse the
+	 * outputs of other machines.
+	 */
+	@Parameter(property = "xtext.buildCache.directory", defaultValue = "${settings.localRepository}/.cache/xtext/build-cache")
+	private File buildCacheDirectory;
+
+	/**
+	 * Only write generated files whose content changed, so that unchanged files
+	 * keep their modification time and don't trigger the recompilation of the
+	 * module. Logs the number of files written, unchanged and deleted per output
+	 * configuration. Languages that bind their own JavaIoFileSystemAccess keep
+	 * it and always write their files.
+	 */
+	@Parameter(property = "xtext.writeChangedFilesOnly", defaultValue = "true")
+	private Boolean writeChangedFilesOnly = Boolean.TRUE;
+
+	/**
+	 * Forward the log messages of the builder to the Maven log on a separate
+	 * thread. Validation issues with the same severity, issue code and file are
+	 * logged once, the number of repetitions is summarized at the end.
+	 */
+	@Parameter(property = "xtext.asyncLog", defaultValue = "false")
+	private Boolean asyncLog = Boolean.FALSE;
+
+	/**
+	 * Number of log messages queued by the asyncLog before the builder waits for
+	 * the Maven log.
+	 */
+	@Parameter(property = "xtext.asyncLog.queueSize", defaultValue = "10000")
+	private int asyncLogQueueSize = 10000;
+
+	/**
+	 * Maximum number of validation issues logged per severity by the asyncLog, 0
+	 * logs all of them. The number of suppressed issues is summarized at the end.
+	 */
+	@Parameter(property = "xtext.asyncLog.maxIssues", defaultValue = "0")
+	private int maxLoggedIssues = 0;
+
+	/**
+	 * Run the standalone builder in a separate JVM, so that its heap can be
+	 * configured with workerJvmArgs independently of the Maven JVM. The worker
+	 * is kept running and reused by all modules and goals of the build with the
+	 * same plugin dependencies and worker arguments, so its JIT compiled code
+	 * and language injectors carry over. A worker that dies is restarted.
+	 * <p>
+	 * The includes and excludes, skipUnusedLanguages, the class path model index,
+	 * the main scope index and the writer threads of the output configurations
+	 * apply to the worker as well. The build fails if fork is combined with
+	 * usePrecomputedResourceDescriptions, the adaptive or dependency based
+	 * clustering, asyncLog or the build report.
+	 */
+	@Parameter(property = "xtext.fork", defaultValue = "false")
+	private Boolean fork = Boolean.FALSE;
+
+	/**
+	 * JVM arguments of the builder worker, separated by whitespace, e.g.
+	 * <code>-Xmx4g</code>.
+	 */
+	@Parameter(property = "xtext.fork.jvmArgs")
+	private String workerJvmArgs;
+
+	/**
+	 * Write a JSON report with the wall time, allocated bytes and number of
+	 * resources of the phases of the execution, per language where applicable,
+	 * to <code>xtext-build-report.json</code> (<code>xtext-build-report-test.json</code>
+	 * for testGenerate) in the buildReportDirectory.
+	 */
+	@Parameter(property = "xtext.buildReport", defaultValue = "false")
+	private Boolean writeBuildReport = Boolean.FALSE;
+
+	/**
+	 * Directory of the build report.
+	 */
+	@Parameter(defaultValue = "${project.build.directory}")
+	private File buildReportDirectory;
+
+	/**
+	 * The dependencies of this plugin, they contain the language setups.
+	 */
+	@Parameter(defaultValue = "${plugin.artifacts}", readonly = true)
+	private List<Artifact> pluginArtifacts;
+
+	/**
+	 * Whether the last run of the builder finished without errors.
+	 */
+	private boolean buildSucceeded;
+
+	/**
+	 * The report of the running execution, <code>null</code> if disabled.
+	 */
+	private BuildReport buildReport;
+
+	/**
+	 * The source roots scanned by the running execution, <code>null</code> until
+	 * the scan is needed.
+	 */
+	private SourceRootScanner.Result sourceScan;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -144,53 +368,979 @@ public abstract class AbstractXtextGeneratorMojo extends AbstractXtextMojo {
 		if (skip) {
 			getLog().info("skipped.");
 		} else {
-			synchronized (lock) {
-				new MavenLog4JConfigurator().configureLog4j(getLog());
-				autoAddToPlatformResourceMap(getProject());
-				manuallyAddToPlatformResourceMap();
+			// the inputs are fingerprinted before the build, so that inputs changed
+			// while it runs trigger the next run
+			BuildFingerprint fingerprint = skipUnchanged ? computeInputFingerprint() : null;
+			if (fingerprint != null && isUpToDate(fingerprint)) {
+				if (addOutputDirectoriesToCompileSourceRoots) {
+					configureMavenOutputs();
+				}
+				return;
+			}
+			BuildCache buildCache = useBuildCache && buildCacheDirectory != null ? new BuildCache(buildCacheDirectory)
+					: null;
+			String cacheKey = buildCache != null ? getCacheKey() : null;
+			if (cacheKey != null && restoreFromBuildCache(buildCache, cacheKey)) {
+				if (addOutputDirectoriesToCompileSourceRoots) {
+					configureMavenOutputs();
+				}
+				if (fingerprint != null) {
+					storeFingerprint(fingerprint);
+				}
+				return;
+			}
+			long start = System.currentTimeMillis();
+			buildReport = writeBuildReport ? new BuildReport() : null;
+			MavenLog4JConfigurator log4JConfigurator = new MavenLog4JConfigurator();
+			log4JConfigurator.configureLog4j(getLog());
+			AsyncBuilderLog builderLog = asyncLog ? new AsyncBuilderLog(getLog(), asyncLogQueueSize, maxLoggedIssues)
+					: null;
+			log4JConfigurator.setAsyncLog(builderLog);
+			try {
+				try (BuildReport.Phase phase = startPhase("platform resource map")) {
+					autoAddToPlatformResourceMap(getProject());
+					manuallyAddToPlatformResourceMap();
+				}
 				internalExecute();
+			} finally {
+				if (builderLog != null) {
+					builderLog.close();
+				}
+				log4JConfigurator.releaseLog4j();
+				writeBuildReport();
+			}
+			if (cacheKey != null && buildSucceeded) {
+				storeInBuildCache(buildCache, cacheKey, System.currentTimeMillis() - start);
+			}
+			if (fingerprint != null && buildSucceeded) {
+				storeFingerprint(fingerprint);
 			}
 		}
 	}
 
+	/**
+	 * @return the key of the inputs in the build cache, <code>null</code> if it
+	 *         can't be computed
+	 */
+	private String getCacheKey() {
+		try {
+			return computeCacheKey();
+		} catch (IOException e) {
+			getLog().warn("Couldn't compute the build cache key, not using the build cache.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the measurement of the given phase, or <code>null</code> if no
+	 *         report is written
+	 */
+	private BuildReport.Phase startPhase(String name) {
+		return buildReport != null ? buildReport.start(name) : null;
+	}
+
+	private void writeBuildReport() {
+		if (buildReport == null) {
+			return;
+		}
+		File reportFile = new File(buildReportDirectory, "xtext-build-report" + tmpDirSuffix() + ".json");
+		try {
+			buildReport.write(reportFile, getProject().getId() + tmpDirSuffix(), buildSucceeded);
+			getLog().info("Build report written to " + reportFile);
+		} catch (IOException e) {
+			getLog().warn("Couldn't write build report " + reportFile, e);
+		}
+		buildReport = null;
+	}
+
+	private BuildFingerprint computeInputFingerprint() throws MojoExecutionException {
+		try {
+			return computeFingerprint();
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to compute the fingerprint of the generator inputs.", e);
+		}
+	}
+
+	/**
+	 * @param current the fingerprint of the inputs, the output directories are
+	 *                added to it
+	 */
+	private boolean isUpToDate(BuildFingerprint current) throws MojoExecutionException {
+		BuildFingerprint previous;
+		try {
+			previous = BuildFingerprint.load(getFingerprintFile());
+			if (previous == null) {
+				getLog().info("Generating, no fingerprint of a previous successful run found.");
+				return false;
+			}
+			addOutputFingerprint(current);
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to compute the fingerprint of the generator inputs.", e);
+		}
+		List<String> changed = current.getChangedComponents(previous);
+		if (changed.isEmpty()) {
+			getLog().info("Skipped, inputs are unchanged since the last successful run.");
+			return true;
+		}
+		getLog().info("Generating, changed since the last successful run: " + IterableExtensions.join(changed, ", "));
+		return false;
+	}
+
+	/**
+	 * Stores the fingerprint of the inputs taken before the build together with
+	 * the output directories as they are after the build.
+	 */
+	private void storeFingerprint(BuildFingerprint fingerprint) throws MojoExecutionException {
+		try {
+			addOutputFingerprint(fingerprint).store(getFingerprintFile());
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to store the fingerprint of the generator inputs.", e);
+		}
+	}
+
+	/**
+	 * Restores the outputs stored in the build cache for the given key.
+	 * 
+	 * @return whether the cache had an entry for the key
+	 */
+	private boolean restoreFromBuildCache(BuildCache buildCache, String cacheKey) {
+		long start = System.currentTimeMillis();
+		try {
+			int files = buildCache.restore(cacheKey, getCachedDirectories(), getCleanedOutputDirectories());
+			if (files < 0) {
+				BuildCache.Statistics statistics = buildCache.recordStatistics(false, 0);
+				getLog().info("Build cache miss for " + cacheKey.substring(0, 12) + ", generating (" + statistics
+						+ ").");
+				return false;
+			}
+			long restoreTime = System.currentTimeMillis() - start;
+			long savedTime = buildCache.getBuildTime(cacheKey) - restoreTime;
+			BuildCache.Statistics statistics = buildCache.recordStatistics(true, savedTime);
+			getLog().info("Build cache hit for " + cacheKey.substring(0, 12) + ", " + files
+					+ " changed or deleted file(s) restored in " + restoreTime + "ms, saving about " + Math.max(savedTime, 0)
+					+ "ms (" + statistics + ").");
+			return true;
+		} catch (IOException e) {
+			getLog().warn("Couldn't restore the outputs from the build cache " + buildCacheDirectory + ", generating.",
+					e);
+			return false;
+		}
+	}
+
+	private void storeInBuildCache(BuildCache buildCache, String cacheKey, long buildTime) {
+		try {
+			Path fingerprintFile = getFingerprintFile().getAbsoluteFile().toPath().normalize();
+			int files = buildCache.store(cacheKey, getCachedDirectories(), buildTime,
+					path -> path.toAbsolutePath().normalize().equals(fingerprintFile));
+			getLog().info("Stored " + files + " generated file(s) in the build cache.");
+		} catch (IOException e) {
+			getLog().warn("Couldn't store the outputs in the build cache " + buildCacheDirectory, e);
+		}
+	}
+
+	/**
+	 * @return the output directories and the temporary directory, which
+	 *         contains the stub classes and the main scope index
+	 */
+	private List<File> getCachedDirectories() {
+		List<File> result = getOutputDirectories();
+		result.add(new File(tmpClassDirectory + tmpDirSuffix()));
+		return result;
+	}
+
+	/**
+	 * @return the output directories whose files the builder cleans up when
+	 *         their models are gone
+	 */
+	private Set<File> getCleanedOutputDirectories() {
+		Set<File> result = new HashSet<>();
+		for (Language language : getLanguages()) {
+			Set<org.eclipse.xtext.generator.OutputConfiguration> outputConfigurations = language
+					.getOutputConfigurations();
+			if (outputConfigurations != null) {
+				for (org.eclipse.xtext.generator.OutputConfiguration configuration : outputConfigurations) {
+					if (configuration.isCleanUpDerivedResources()) {
+						for (String outputDirectory : configuration.getOutputDirectories()) {
+							result.add(resolveFilePath(outputDirectory));
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private File getFingerprintFile() {
+		return new File(tmpClassDirectory + tmpDirSuffix(), "fingerprint.properties");
+	}
+
+	/**
+	 * Computes the fingerprint of all inputs of the generator, except for the
+	 * output directories, see {@link #addOutputFingerprint(BuildFingerprint)}.
+	 */
+	protected BuildFingerprint computeFingerprint() throws IOException {
+		BuildFingerprint fingerprint = new BuildFingerprint();
+		fingerprint.addFiles("source roots", getSourceRoots());
+		fingerprint.addFiles("java source roots", javaSourceRoots);
+		fingerprint.addFiles("classpath", getClasspathElements());
+		fingerprint.addValues("languages", describeLanguages());
+		fingerprint.addValues("compiler settings", getCompilerSettings());
+		fingerprint.addValues("includes", getPatterns(includes));
+		fingerprint.addValues("excludes", getPatterns(excludes));
+		List<String> pluginFiles = new ArrayList<>();
+		for (File pluginFile : getPluginFiles()) {
+			pluginFiles.add(pluginFile.getAbsolutePath());
+		}
+		fingerprint.addFiles("plugin dependencies", pluginFiles);
+		return fingerprint;
+	}
+
+	/**
+	 * Adds or replaces the output directories in the given fingerprint, so that
+	 * deleted or modified generated files trigger a new run as well.
+	 */
+	protected BuildFingerprint addOutputFingerprint(BuildFingerprint fingerprint) throws IOException {
+		List<String> outputDirectories = new ArrayList<>();
+		for (File outputDirectory : getOutputDirectories()) {
+			outputDirectories.add(outputDirectory.getAbsolutePath());
+		}
+		return fingerprint.addFiles("output directories", outputDirectories);
+	}
+
+	/**
+	 * Computes the key of the outputs in the {@link BuildCache} from the content
+	 * of all inputs of the generator. Paths are relative to the project's base
+	 * directory and jars contribute with their file name, so the same inputs in
+	 * another checkout have the same key.
+	 */
+	protected String computeCacheKey() throws IOException {
+		BuildCache.KeyBuilder key = new BuildCache.KeyBuilder();
+		key.addValues("goal", Collections.singletonList(getClass().getName()));
+		List<Path> outputDirectories = new ArrayList<>();
+		for (File outputDirectory : getOutputDirectories()) {
+			outputDirectories.add(outputDirectory.getAbsoluteFile().toPath().normalize());
+		}
+		java.util.function.Predicate<Path> generated = path -> outputDirectories.stream()
+				.anyMatch(path.toAbsolutePath().normalize()::startsWith);
+		for (String sourceRoot : getSourceRoots()) {
+			File directory = resolveFilePath(sourceRoot);
+			key.addDirectory(getRelativePath(directory), directory, generated);
+		}
+		for (String javaSourceRoot : javaSourceRoots) {
+			File directory = resolveFilePath(javaSourceRoot);
+			key.addDirectory(getRelativePath(directory), directory, generated);
+		}
+		for (String classpathElement : new TreeSet<>(getClasspathElements())) {
+			File file = new File(classpathElement);
+			if (file.isDirectory()) {
+				key.addDirectory(getRelativePath(file), file, generated);
+			} else if (file.isFile()) {
+				key.addJar(file);
+			}
+		}
+		key.addValues("languages", describeLanguages());
+		key.addValues("compiler settings", getCompilerSettings());
+		key.addValues("includes", getPatterns(includes));
+		key.addValues("excludes", getPatterns(excludes));
+		for (File pluginFile : getPluginFiles()) {
+			if (pluginFile.isFile()) {
+				key.addJar(pluginFile);
+			}
+		}
+		return key.build();
+	}
+
+	private String getRelativePath(File file) {
+		Path baseDir = getProject().getBasedir().getAbsoluteFile().toPath().normalize();
+		Path path = file.getAbsoluteFile().toPath().normalize();
+		return baseDir.relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * @return the sorted descriptions of the configured languages and their
+	 *         output configurations
+	 */
+	private List<String> describeLanguages() {
+		List<String> languageDescriptions = new ArrayList<>();
+		for (Language language : getLanguages()) {
+			languageDescriptions.add(language.getSetup() + ", javaSupport=" + language.isJavaSupport());
+			Set<org.eclipse.xtext.generator.OutputConfiguration> outputConfigurations = language
+					.getOutputConfigurations();
+			if (outputConfigurations != null) {
+				for (org.eclipse.xtext.generator.OutputConfiguration configuration : outputConfigurations) {
+					languageDescriptions.add(describe(configuration));
+				}
+			}
+		}
+		Collections.sort(languageDescriptions);
+		return languageDescriptions;
+	}
+
+	/**
+	 * @return the output directories of all output configurations of the
+	 *         configured languages, including the ones of their source mappings
+	 */
+	private List<File> getOutputDirectories() {
+		List<File> outputDirectories = new ArrayList<>();
+		for (Language language : getLanguages()) {
+			Set<org.eclipse.xtext.generator.OutputConfiguration> outputConfigurations = language
+					.getOutputConfigurations();
+			if (outputConfigurations != null) {
+				for (org.eclipse.xtext.generator.OutputConfiguration configuration : outputConfigurations) {
+					for (String outputDirectory : configuration.getOutputDirectories()) {
+						outputDirectories.add(resolveFilePath(outputDirectory));
+					}
+				}
+			}
+		}
+		return outputDirectories;
+	}
+
+	private List<Object> getCompilerSettings() {
+		return Arrays.asList(getEncoding(), compilerSourceLevel, compilerTargetLevel, compilerSkipAnnotationProcessing,
+				compilerPreserveInformationAboutFormalParameters, failOnValidationError, classPathLookupFilter,
+				incrementalXtextBuild, usePrecomputedResourceDescriptions);
+	}
+
+	private static List<String> getPatterns(List<String> patterns) {
+		return patterns != null ? patterns : Collections.emptyList();
+	}
+
+	private List<File> getPluginFiles() {
+		List<File> pluginFiles = new ArrayList<>();
+		if (pluginArtifacts != null) {
+			for (Artifact artifact : pluginArtifacts) {
+				if (artifact.getFile() != null) {
+					pluginFiles.add(artifact.getFile());
+				}
+			}
+		}
+		return pluginFiles;
+	}
+
+	private String describe(org.eclipse.xtext.generator.OutputConfiguration configuration) {
+		StringBuilder result = new StringBuilder(configuration.getName());
+		result.append(", outputDirectory=").append(configuration.getOutputDirectory());
+		result.append(", createOutputDirectory=").append(configuration.isCreateOutputDirectory());
+		result.append(", overrideExistingResources=").append(configuration.isOverrideExistingResources());
+		result.append(", canClearOutputDirectory=").append(configuration.isCanClearOutputDirectory());
+		result.append(", cleanUpDerivedResources=").append(configuration.isCleanUpDerivedResources());
+		result.append(", installDslAsPrimarySource=").append(configuration.isInstallDslAsPrimarySource());
+		result.append(", hideSyntheticLocalVariables=").append(configuration.isHideSyntheticLocalVariables());
+		for (org.eclipse.xtext.generator.OutputConfiguration.SourceMapping mapping : configuration
+				.getSourceMappings()) {
+			result.append(", ").append(mapping.getSourceFolder()).append("=>").append(mapping.getOutputDirectory());
+		}
+		return result.toString();
+	}
+
 	protected void internalExecute() throws MojoExecutionException {
 		if (addOutputDirectoriesToCompileSourceRoots) {
 			configureMavenOutputs();
 		}
-		Map<String, LanguageAccess> languages = new LanguageAccessFactory().createLanguageAccess(getLanguages(),
-				this.getClass().getClassLoader());
-		Injector injector = Guice.createInjector(new MavenStandaloneBuilderModule());
-		StandaloneBuilder builder = injector.getInstance(StandaloneBuilder.class);
-		builder.setBaseDir(getProject().getBasedir().getAbsolutePath());
-		builder.setLanguages(languages);
-		builder.setEncoding(getEncoding());
-		builder.setClassPathEntries(getClasspathElements());
-		builder.setClassPathLookUpFilter(classPathLookupFilter);
-		builder.setSourceDirs(getSourceRoots());
-		builder.setJavaSourceDirs(javaSourceRoots);
-		builder.setFailOnValidationError(failOnValidationError);
-		builder.setTempDir(createTempDir().getAbsolutePath());
-		builder.setDebugLog(getLog().isDebugEnabled());
-		builder.setIncrementalBuild(incrementalXtextBuild);
-		if (clusteringConfig != null)
-			builder.setClusteringConfig(clusteringConfig.convertToStandaloneConfig());
-		configureCompiler(builder.getCompiler());
+		if (fork) {
+			forkExecute();
+			return;
+		}
+		ClassLoader classLoader = this.getClass().getClassLoader();
+		InjectorCache injectorCache = getInjectorCache();
+		CachingLanguageAccessFactory languageAccessFactory = new CachingLanguageAccessFactory(injectorCache);
+		languageAccessFactory.setBuildReport(buildReport);
+		GeneratedFileStatistics generatedFileStatistics = new GeneratedFileStatistics();
+		languageAccessFactory.setGeneratedFileStatistics(generatedFileStatistics);
+		languageAccessFactory.setWriteChangedFilesOnly(writeChangedFilesOnly);
+		Injector injector = null;
+		try {
+			sourceScan = null;
+			LanguageFileExtensionIndex languageIndex = getLanguageFileExtensionIndex();
+			languageAccessFactory.setFileExtensionIndex(languageIndex);
+			List<Language> usedLanguages = languageIndex != null ? selectUsedLanguages(languageIndex, classLoader)
+					: getLanguages();
+			Map<String, LanguageAccess> languages = languageAccessFactory.createLanguageAccess(usedLanguages,
+					classLoader);
+			if (languageIndex != null) {
+				try {
+					languageIndex.save();
+				} catch (IOException e) {
+					getLog().warn("Couldn't write language file extension index " + languageIndexFile, e);
+				}
+			}
+			Set<String> precomputedJars = new HashSet<>();
+			PrecomputedResourceDescriptions precomputedDescriptions;
+			try (BuildReport.Phase phase = startPhase("class path scan")) {
+				precomputedDescriptions = usePrecomputedResourceDescriptions
+						? readPrecomputedResourceDescriptions(precomputedJars)
+						: null;
+			}
+			WorkerBuildRequest request = prepareBuild(usedLanguages, languageIndex, languages.keySet(),
+					precomputedJars);
+			boolean mainIndexRead;
+			try (BuildReport.Phase phase = startPhase("class path scan")) {
+				PrecomputedResourceDescriptions descriptions = precomputedDescriptions != null ? precomputedDescriptions
+						: new PrecomputedResourceDescriptions();
+				mainIndexRead = request.readMainScopeIndex(languages.keySet(), descriptions, getLog());
+				if (mainIndexRead) {
+					precomputedDescriptions = descriptions;
+				}
+			}
+			MainScopeIndex mainScopeIndex = request.mainIndexSourceRoots != null ? new MainScopeIndex() : null;
+			ResourceLoadCounter loadCounter = clusteringConfig != null
+					&& (clusteringConfig.isAdaptive() || clusteringConfig.isPartitionByDependencies())
+							? new ResourceLoadCounter()
+							: null;
+			AdaptiveClustering adaptiveClustering = clusteringConfig != null && clusteringConfig.isAdaptive()
+					? new AdaptiveClustering(clusteringConfig, clusteringConfig.getMinimumClusterSize(),
+							getClusteringProfileFile("clustering.properties"), loadCounter, getLog())
+					: null;
+			DependencyClustering dependencyClustering = clusteringConfig != null
+					&& clusteringConfig.isPartitionByDependencies()
+							? new DependencyClustering(clusteringConfig, adaptiveClustering,
+									getClusteringProfileFile("dependencies.txt"), loadCounter, getLog())
+							: null;
+			IResourceClusteringPolicy clusteringPolicy = dependencyClustering != null ? dependencyClustering
+					: adaptiveClustering;
+			injector = createBuilderInjector(injectorCache, classLoader, precomputedDescriptions,
+					dependencyClustering != null ? dependencyClustering.getCurrentGraph() : null, mainScopeIndex,
+					clusteringPolicy, loadCounter);
+			MavenStandaloneBuilder builder = injector.getInstance(MavenStandaloneBuilder.class);
+			request.configure(builder);
+			builder.setLanguages(languages);
+			builder.setClassPathLookUpFilter(request.getClassPathLookupFilter(mainIndexRead));
+			builder.setDependencyClustering(dependencyClustering);
+			// the adaptive and dependency clustering are bound as the builder's clustering policy
+			if (clusteringConfig != null && clusteringPolicy == null) {
+				builder.setClusteringConfig(clusteringConfig.convertToStandaloneConfig());
+			}
+			logState();
+			boolean errorDetected;
+			if (adaptiveClustering != null) {
+				adaptiveClustering.startMonitoring();
+				try {
+					errorDetected = !builder.launch();
+				} finally {
+					adaptiveClustering.stopMonitoring();
+				}
+			} else {
+				errorDetected = !builder.launch();
+			}
+			try {
+				languageAccessFactory.flushFileWriters();
+			} catch (IOException e) {
+				throw new MojoExecutionException("Failed to write the generated files.", e);
+			}
+			generatedFileStatistics.log(getLog());
+			buildSucceeded = !errorDetected;
+			if (dependencyClustering != null) {
+				dependencyClustering.finish();
+			}
+			if (mainScopeIndex != null && buildSucceeded) {
+				request.writeMainScopeIndex(mainScopeIndex, getLog());
+			}
+			if (errorDetected && failOnValidationError) {
+				throw new MojoExecutionException("Execution failed due to a severe validation error.");
+			}
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to scan the source roots.", e);
+		} finally {
+			languageAccessFactory.release();
+			if (injector != null) {
+				injectorCache.release(injector);
+			}
+			if (isReuseInjectors()) {
+				getLog().info("Injector cache: " + injectorCache.getStatistics());
+			}
+		}
+	}
+
+	protected abstract List<String> getSourceRoots();
+
+	/**
+	 * Runs the standalone builder in a {@link BuilderWorker}.
+	 */
+	private void forkExecute() throws MojoExecutionException {
+		checkForkSettings();
+		ClassLoader classLoader = getClass().getClassLoader();
+		WorkerBuildRequest request;
+		try {
+			sourceScan = null;
+			LanguageFileExtensionIndex languageIndex = getLanguageFileExtensionIndex();
+			List<Language> usedLanguages = languageIndex != null ? selectUsedLanguages(languageIndex, classLoader)
+					: getLanguages();
+			request = prepareBuild(usedLanguages, languageIndex,
+					getKnownFileExtensions(usedLanguages, languageIndex, classLoader), Collections.emptySet());
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to scan the source roots.", e);
+		}
+		request.platformResourceMap = new HashMap<>();
+		synchronized (platformResourceMapLock) {
+			for (Map.Entry<String, URI> project : EcorePlugin.getPlatformResourceMap().entrySet()) {
+				request.platformResourceMap.put(project.getKey(), project.getValue().toString());
+			}
+		}
 		logState();
-		boolean errorDetected = !builder.launch();
-		if (errorDetected && failOnValidationError) {
+		BuilderWorker.Result result;
+		try (BuildReport.Phase phase = startPhase("builder worker")) {
+			List<String> jvmArgs = Strings.isEmpty(workerJvmArgs) ? Collections.emptyList()
+					: Arrays.asList(workerJvmArgs.trim().split("\\s+"));
+			result = BuilderWorkerPool.build(BuilderWorkerPool.createCommand(jvmArgs, getClass().getClassLoader()),
+					request, getLog());
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to run the builder worker.", e);
+		}
+		if (result.getFailure() != null) {
+			throw new MojoExecutionException("The builder worker failed: " + result.getFailure());
+		}
+		buildSucceeded = result.isSuccess();
+		if (!buildSucceeded && failOnValidationError) {
 			throw new MojoExecutionException("Execution failed due to a severe validation error.");
 		}
 	}
 
-	protected abstract List<String> getSourceRoots();
+	/**
+	 * Prepares the settings shared by the builder in this JVM and the
+	 * {@link BuilderWorker}: the source roots and the models to build, the class
+	 * path look up filter, the main scope index and the builder options.
+	 * 
+	 * @param fileExtensions  the file extensions of the used languages, or
+	 *                        <code>null</code> if they aren't known
+	 * @param precomputedJars the class path entries described by precomputed
+	 *                        resource descriptions
+	 */
+	private WorkerBuildRequest prepareBuild(List<Language> usedLanguages, LanguageFileExtensionIndex languageIndex,
+			Set<String> fileExtensions, Set<String> precomputedJars) throws IOException {
+		WorkerBuildRequest request = new WorkerBuildRequest();
+		request.baseDir = getProject().getBasedir().getAbsolutePath();
+		request.languages = new ArrayList<>(usedLanguages);
+		request.languageIndexFile = languageIndex != null ? languageIndexFile.getAbsolutePath() : null;
+		if (hasSourcePatterns()) {
+			scanSourceRoots();
+			if (fileExtensions != null) {
+				sourceScan.retainFileExtensions(fileExtensions);
+			}
+			getLog().info(sourceScan + ".");
+			request.sourceDirs = new ArrayList<>(getSourceRootsWithModels());
+			if (sourceScan.hasExcludedModels()) {
+				request.excludedModels = toStrings(sourceScan.getExcludedModels());
+				request.excludedDirectories = toStrings(sourceScan.getExcludedDirectories());
+			}
+		} else {
+			request.sourceDirs = new ArrayList<>(getSourceRoots());
+		}
+		// the main output directory is excluded once the main scope index is read
+		try (BuildReport.Phase phase = startPhase("class path scan")) {
+			request.classPathLookupFilter = fileExtensions != null
+					? getClassPathLookupFilter(fileExtensions, precomputedJars)
+					: classPathLookupFilter;
+		}
+		if (reuseMainIndex) {
+			File mainOutputDirectory = getMainOutputDirectory();
+			if (mainOutputDirectory != null && getClasspathElements().contains(mainOutputDirectory.getPath())) {
+				request.mainIndexDirectory = new File(tmpClassDirectory).getAbsolutePath();
+				request.mainOutputDirectory = mainOutputDirectory.getPath();
+			}
+			if (isWritingMainScopeIndex()) {
+				request.mainIndexDirectory = new File(tmpClassDirectory).getAbsolutePath();
+				request.mainIndexSourceRoots = new ArrayList<>();
+				for (String sourceRoot : getSourceRoots()) {
+					request.mainIndexSourceRoots.add(resolveFilePath(sourceRoot).getAbsolutePath());
+				}
+			}
+		}
+		request.javaSourceDirs = new ArrayList<>(javaSourceRoots);
+		request.classPathEntries = new ArrayList<>(getClasspathElements());
+		request.encoding = getEncoding();
+		request.failOnValidationError = failOnValidationError;
+		request.tempDir = createTempDir().getAbsolutePath();
+		request.debugLog = getLog().isDebugEnabled();
+		request.incrementalBuild = incrementalXtextBuild;
+		request.clusteringConfig = clusteringConfig;
+		request.compilerSourceLevel = compilerSourceLevel;
+		request.compilerTargetLevel = compilerTargetLevel;
+		request.compilerSkipAnnotationProcessing = compilerSkipAnnotationProcessing;
+		request.compilerPreserveInformationAboutFormalParameters = compilerPreserveInformationAboutFormalParameters;
+		request.writeChangedFilesOnly = writeChangedFilesOnly;
+		return request;
+	}
+
+	/**
+	 * Fails if a setting is configured that the {@link BuilderWorker} doesn't
+	 * support, instead of ignoring it.
+	 */
+	private void checkForkSettings() throws MojoExecutionException {
+		List<String> unsupported = new ArrayList<>();
+		if (usePrecomputedResourceDescriptions) {
+			unsupported.add("usePrecomputedResourceDescriptions");
+		}
+		if (clusteringConfig != null && clusteringConfig.isAdaptive()) {
+			unsupported.add("the adaptive clustering");
+		}
+		if (clusteringConfig != null && clusteringConfig.isPartitionByDependencies()) {
+			unsupported.add("the dependency based clustering");
+		}
+		if (asyncLog) {
+			unsupported.add("asyncLog");
+		}
+		if (writeBuildReport) {
+			unsupported.add("the build report");
+		}
+		if (!unsupported.isEmpty()) {
+			throw new MojoExecutionException(
+					"The builder worker (xtext.fork) doesn't support " + String.join(", ", unsupported) + ".");
+		}
+	}
+
+	/**
+	 * @return the configured or indexed file extensions of the given languages,
+	 *         or <code>null</code> if they aren't known for all of them
+	 */
+	private Set<String> getKnownFileExtensions(List<Language> languages, LanguageFileExtensionIndex languageIndex,
+			ClassLoader classLoader) {
+		Set<String> result = new HashSet<>();
+		for (Language language : languages) {
+			Collection<String> fileExtensions = language.getFileExtensions() != null ? language.getFileExtensions()
+					: languageIndex != null ? languageIndex.getFileExtensions(language.getSetup(), classLoader) : null;
+			if (fileExtensions == null) {
+				return null;
+			}
+			result.addAll(fileExtensions);
+		}
+		return result;
+	}
+
+	private static List<String> toStrings(Collection<Path> paths) {
+		List<String> result = new ArrayList<>();
+		for (Path path : paths) {
+			result.add(path.toAbsolutePath().toString());
+		}
+		return result;
+	}
+
+	private boolean hasSourcePatterns() {
+		return !getPatterns(includes).isEmpty() || !getPatterns(excludes).isEmpty();
+	}
+
+	/**
+	 * Finds the files in the source roots that match the {@link #includes} and
+	 * {@link #excludes}. The scan runs before the languages are known, so it
+	 * matches files of all file extensions.
+	 */
+	private SourceRootScanner.Result scanSourceRoots() throws IOException {
+		if (sourceScan == null) {
+			try (BuildReport.Phase phase = startPhase("source scan")) {
+				List<File> sourceRoots = new ArrayList<>();
+				for (String sourceRoot : getSourceRoots()) {
+					sourceRoots.add(resolveFilePath(sourceRoot));
+				}
+				sourceScan = new SourceRootScanner(null, includes, excludes).scan(sourceRoots);
+			}
+		}
+		return sourceScan;
+	}
 
-	private void configureCompiler(IJavaCompiler compiler) {
-		CompilerConfiguration conf = compiler.getConfiguration();
-		conf.setSourceLevel(compilerSourceLevel);
-		conf.setTargetLevel(compilerTargetLevel);
-		conf.setVerbose(getLog().isDebugEnabled());
-		conf.setSkipAnnotationProcessing(compilerSkipAnnotationProcessing);
-		conf.setPreserveInformationAboutFormalParameters(compilerPreserveInformationAboutFormalParameters);
+	/**
+	 * @return the source roots that contain models to build, the builder doesn't
+	 *         need to walk the others
+	 */
+	private List<String> getSourceRootsWithModels() {
+		List<String> result = new ArrayList<>();
+		List<String> skipped = new ArrayList<>();
+		for (String sourceRoot : getSourceRoots()) {
+			List<Path> models = sourceScan.getModels().get(resolveFilePath(sourceRoot));
+			if (models != null && !models.isEmpty()) {
+				result.add(sourceRoot);
+			} else {
+				skipped.add(sourceRoot);
+			}
+		}
+		if (!skipped.isEmpty()) {
+			getLog().info("Skipped " + skipped.size() + " source root(s) without models: "
+					+ IterableExtensions.join(skipped, ", "));
+		}
+		return result;
+	}
+
+	private LanguageFileExtensionIndex getLanguageFileExtensionIndex() {
+		if (!skipUnusedLanguages || languageIndexFile == null) {
+			return null;
+		}
+		try {
+			return LanguageFileExtensionIndex.get(languageIndexFile);
+		} catch (IOException e) {
+			getLog().warn("Couldn't read language file extension index " + languageIndexFile + ", using all languages.",
+					e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the configured languages that have files in the source roots or on
+	 *         the class path, the languages with unknown file extensions and the
+	 *         languages required by them
+	 */
+	private List<Language> selectUsedLanguages(LanguageFileExtensionIndex languageIndex, ClassLoader classLoader)
+			throws IOException {
+		List<Language> configured = getLanguages();
+		Map<String, Language> bySetup = new LinkedHashMap<>();
+		for (Language language : configured) {
+			bySetup.put(language.getSetup(), language);
+		}
+		Map<String, Set<String>> knownFileExtensions = new HashMap<>();
+		Set<String> candidateFileExtensions = new HashSet<>();
+		for (Language language : configured) {
+			Set<String> fileExtensions = language.getFileExtensions() != null
+					? new HashSet<>(language.getFileExtensions())
+					: languageIndex.getFileExtensions(language.getSetup(), classLoader);
+			if (fileExtensions != null) {
+				knownFileExtensions.put(language.getSetup(), fileExtensions);
+				candidateFileExtensions.addAll(fileExtensions);
+			}
+		}
+		Set<String> presentFileExtensions = null;
+		if (!knownFileExtensions.isEmpty()) {
+			presentFileExtensions = collectFileExtensions(candidateFileExtensions);
+			if (presentFileExtensions == null) {
+				return configured;
+			}
+		}
+		Set<String> used = new HashSet<>();
+		Deque<String> required = new ArrayDeque<>();
+		for (Language language : configured) {
+			Set<String> fileExtensions = knownFileExtensions.get(language.getSetup());
+			if (fileExtensions != null && Collections.disjoint(fileExtensions, presentFileExtensions)) {
+				continue;
+			}
+			required.add(language.getSetup());
+		}
+		while (!required.isEmpty()) {
+			Language language = bySetup.get(required.pop());
+			if (language != null && used.add(language.getSetup()) && language.getRequiredLanguages() != null) {
+				required.addAll(language.getRequiredLanguages());
+			}
+		}
+		List<Language> result = new ArrayList<>();
+		List<String> skipped = new ArrayList<>();
+		long savedTime = 0;
+		for (Language language : configured) {
+			if (used.contains(language.getSetup())) {
+				result.add(language);
+			} else {
+				skipped.add(language.getSetup());
+				savedTime += languageIndex.getCreationTime(language.getSetup(), classLoader);
+			}
+		}
+		if (!skipped.isEmpty()) {
+			getLog().info("Skipped " + skipped.size()
+					+ " language(s) without files in the source roots or on the class path: "
+					+ String.join(", ", skipped) + ", saving about " + savedTime + "ms of injector creation.");
+		}
+		return result;
+	}
+
+	/**
+	 * The class path directories are walked only until all candidate extensions
+	 * have been found, as their content isn't indexed like the one of the jars.
+	 * 
+	 * @param candidates the extensions the caller is interested in
+	 * @return the extensions of the files in the source roots and the class path
+	 *         entries, complete for the candidates, or <code>null</code> if the
+	 *         jars can't be checked without the class path model index
+	 */
+	private Set<String> collectFileExtensions(Set<String> candidates) throws IOException {
+		ClasspathModelIndex index = null;
+		if (useClasspathIndex && classpathIndexFile != null) {
+			try {
+				index = ClasspathModelIndex.get(classpathIndexFile);
+			} catch (IOException e) {
+				getLog().debug("Couldn't read class path model index " + classpathIndexFile + ", using all languages.");
+			}
+		}
+		if (index == null) {
+			return null;
+		}
+		Set<String> result = new HashSet<>(scanSourceRoots().getFileExtensions());
+		List<File> directories = new ArrayList<>();
+		for (String classpathElement : getClasspathElements()) {
+			File file = new File(classpathElement);
+			if (file.isDirectory()) {
+				directories.add(file);
+			} else if (file.isFile()) {
+				result.addAll(index.getFileExtensions(file));
+			}
+		}
+		Set<String> missing = new HashSet<>(candidates);
+		missing.removeAll(result);
+		for (File directory : directories) {
+			if (missing.isEmpty()) {
+				break;
+			}
+			if (directory.isDirectory()) {
+				try (Stream<Path> walker = java.nio.file.Files.walk(directory.toPath())) {
+					Iterator<Path> paths = walker.iterator();
+					while (paths.hasNext() && !missing.isEmpty()) {
+						String extension = Files.getFileExtension(paths.next().getFileName().toString());
+						if (!extension.isEmpty()) {
+							result.add(extension);
+							missing.remove(extension);
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Narrows the configured {@link #classPathLookupFilter} down to the class path
+	 * entries that may contain model files according to the
+	 * {@link ClasspathModelIndex}. Directories are always included.
+	 */
+	private String getClassPathLookupFilter(Set<String> fileExtensions, Set<String> precomputedJars) {
+		ClasspathModelIndex index = null;
+		if (useClasspathIndex && classpathIndexFile != null) {
+			try {
+				index = ClasspathModelIndex.get(classpathIndexFile);
+			} catch (IOException e) {
+				getLog().warn("Couldn't read class path model index " + classpathIndexFile + ", scanning all jars.", e);
+			}
+		}
+		if (index == null && precomputedJars.isEmpty()) {
+			return classPathLookupFilter;
+		}
+		Set<String> classpathElements = getClasspathElements();
+		List<String> patterns = new ArrayList<>();
+		for (String classpathElement : classpathElements) {
+			if (precomputedJars.contains(classpathElement)) {
+				continue;
+			}
+			File file = new File(classpathElement);
+			if (index != null && file.isFile()) {
+				try {
+					if (Collections.disjoint(index.getFileExtensions(file), fileExtensions)) {
+						continue;
+					}
+				} catch (IOException e) {
+					getLog().debug("Couldn't index " + file + ", including it in the model file look up.");
+				}
+			}
+			// the builder matches the filter against the entries it is given
+			patterns.add(Pattern.quote(classpathElement));
+		}
+		if (index != null) {
+			try {
+				index.save();
+			} catch (IOException e) {
+				getLog().warn("Couldn't write class path model index " + classpathIndexFile, e);
+			}
+			getLog().info("Class path model index: " + patterns.size() + " of " + classpathElements.size()
+					+ " class path entries may contain models, " + index.getScannedJars() + " jar(s) (re)indexed.");
+		}
+		String filter = patterns.isEmpty() ? "(?!)" : "(?:" + IterableExtensions.join(patterns, "|") + ")";
+		if (classPathLookupFilter != null) {
+			filter = "(?=(?:" + classPathLookupFilter + ")$)" + filter;
+		}
+		return filter;
+	}
+
+	/**
+	 * Reads the {@link PrecomputedResourceDescriptions} packaged with the jars on
+	 * the class path.
+	 * 
+	 * @param precomputedJars collects the class path entries that provided
+	 *                        resource descriptions
+	 * @return the resource descriptions or <code>null</code> if no jar provides
+	 *         any
+	 */
+	private PrecomputedResourceDescriptions readPrecomputedResourceDescriptions(Set<String> precomputedJars) {
+		PrecomputedResourceDescriptions result = new PrecomputedResourceDescriptions();
+		int models = 0;
+		for (String classpathElement : getClasspathElements()) {
+			File file = new File(classpathElement);
+			if (!file.isFile()) {
+				continue;
+			}
+			try (ZipFile zipFile = new ZipFile(file)) {
+				ZipEntry entry = zipFile.getEntry(PrecomputedResourceDescriptions.LOCATION);
+				if (entry != null) {
+					URI baseURI = URI.createURI("archive:" + URI.createFileURI(file.getAbsolutePath()) + "!/");
+					try (InputStream in = zipFile.getInputStream(entry)) {
+						models += result.read(in, baseURI, EPackage.Registry.INSTANCE);
+					}
+					precomputedJars.add(classpathElement);
+				}
+			} catch (IOException e) {
+				getLog().warn("Couldn't read precomputed resource descriptions of " + file, e);
+			}
+		}
+		if (precomputedJars.isEmpty()) {
+			return null;
+		}
+		getLog().info("Using precomputed resource descriptions of " + models + " model(s) from "
+				+ precomputedJars.size() + " jar(s).");
+		return result;
+	}
+
+	/**
+	 * @return whether this execution writes the index of its source models for
+	 *         the executions that have its output directory on the class path
+	 */
+	protected boolean isWritingMainScopeIndex() {
+		return false;
+	}
+
+	/**
+	 * @return the output directory of the main scope, whose models are described
+	 *         by the index written by the main scope's execution, or
+	 *         <code>null</code> if this execution doesn't use it
+	 */
+	protected File getMainOutputDirectory() {
+		return null;
+	}
+
+	private Injector createBuilderInjector(InjectorCache injectorCache, ClassLoader classLoader,
+			PrecomputedResourceDescriptions precomputedDescriptions, ResourceDependencyGraph dependencyGraph,
+			MainScopeIndex mainScopeIndex, IResourceClusteringPolicy clusteringPolicy,
+			ResourceLoadCounter loadCounter) {
+		if (precomputedDescriptions == null && dependencyGraph == null && buildReport == null
+				&& mainScopeIndex == null && clusteringPolicy == null) {
+			return injectorCache.acquire(MavenStandaloneBuilderModule.class.getName(), classLoader,
+					() -> Guice.createInjector(Modules.override(new MavenStandaloneBuilderModule())
+							.with((Module) binder -> binder.bind(XtextResourceSet.class)
+									.to(MavenBuilderResourceSet.class))));
+		}
+		return Guice.createInjector(Modules.override(new MavenStandaloneBuilderModule()).with((Module) binder -> {
+			if (precomputedDescriptions != null) {
+				binder.bind(PrecomputedResourceDescriptions.class).toInstance(precomputedDescriptions);
+			}
+			if (dependencyGraph != null) {
+				binder.bind(ResourceDependencyGraph.class).toInstance(dependencyGraph);
+			}
+			if (buildReport != null) {
+				binder.bind(BuildReport.class).toInstance(buildReport);
+			}
+			if (mainScopeIndex != null) {
+				binder.bind(MainScopeIndex.class).toInstance(mainScopeIndex);
+			}
+			if (clusteringPolicy != null) {
+				binder.bind(IResourceClusteringPolicy.class).toInstance(clusteringPolicy);
+			}
+			if (loadCounter != null) {
+				binder.bind(ResourceLoadCounter.class).toInstance(loadCounter);
+			}
+			binder.bind(XtextResourceSet.class).to(MavenBuilderResourceSet.class);
+		}));
+	}
+
+	/**
+	 * @return the file in the {@link #clusteringProfileDirectory} with the given
+	 *         name for this project and goal. The location of the project is part
+	 *         of the name, as the profiles refer to its files.
+	 */
+	private File getClusteringProfileFile(String name) {
+		String location = Hashing.murmur3_128().hashString(
+				getProject().getBasedir().toPath().toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8)
+				.toString();
+		return new File(clusteringProfileDirectory, getProject().getArtifactId() + "-" + location + tmpDirSuffix()
+				+ "-" + name);
 	}
 
 	private void logState() {
@@ -267,7 +1417,7 @@ public abstract class AbstractXtextGeneratorMojo extends AbstractXtextMojo {
 					String name = projectMapping.getProjectName();
 					getLog().info("Adding project '" + name + "' with path '" + path + "' to Platform Resource Map");
 					final URI uri = URI.createURI(path);
-					EcorePlugin.getPlatformResourceMap().put(name, uri);
+					addToPlatformResourceMap(name, uri);
 				}
 			}
 		}
@@ -278,13 +1428,12 @@ public abstract class AbstractXtextGeneratorMojo extends AbstractXtextMojo {
 	 * will be used as the map entry's key.
 	 *
 	 * @param file a file to register
-	 * @return the registered URI pointing to the given file
 	 * @see EcorePlugin#getPlatformResourceMap()
 	 */
-	private URI addToPlatformResourceMap(final File file) {
+	private void addToPlatformResourceMap(final File file) {
 		getLog().info("Adding project '" + file.getName() + "' with path '" + file.toURI().toString()
 				+ "' to Platform Resource Map");
 		final URI uri = URI.createURI(file.toURI().toString());
-		return EcorePlugin.getPlatformResourceMap().put(file.getName(), uri);
+		addToPlatformResourceMap(file.getName(), uri);
 	}
 }
\ No newline at end of file
@@ -10,10 +10,19 @@ package org.eclipse.xtext.maven;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.ISetup;
 import org.eclipse.xtext.generator.OutputConfiguration;
 
 /**
@@ -25,22 +34,62 @@ public abstract class AbstractXtextMojo extends AbstractMojo {
 
 	/**
 	 * Lock object to ensure thread-safety
+	 * 
+	 * @deprecated executions are no longer serialized as a whole, use
+	 *             {@link #emfRegistryLock} or
+	 *             {@link #platformResourceMapLock} to guard the JVM-global
+	 *             state instead.
 	 */
+	@Deprecated
 	protected static final Object lock = new Object();
 
+	/**
+	 * Guards the JVM-global EMF registries ({@link EPackage.Registry#INSTANCE},
+	 * {@link Resource.Factory.Registry#INSTANCE}). They are plain hash maps, so
+	 * language setups populate them in
+	 * {@link ISetup#createInjectorAndDoEMFRegistration()} under the write lock.
+	 * Executions only hold the read lock while they copy the registries into
+	 * the resource set they load the resources with, see
+	 * {@link MavenBuilderResourceSet#copyGlobalRegistries}, so no lock is held
+	 * while they build.
+	 */
+	protected static final ReadWriteLock emfRegistryLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Guards writes to the JVM-global {@link EcorePlugin#getPlatformResourceMap()}.
+	 */
+	protected static final Object platformResourceMapLock = new Object();
+
 	/**
 	 * The project itself. This parameter is set by maven.
 	 */
 	@Parameter(defaultValue = "${project}", readonly = true, required = true)
 	private MavenProject project;
 
+	/**
+	 * The current build session. This parameter is set by maven.
+	 */
+	@Parameter(defaultValue = "${session}", readonly = true, required = true)
+	private MavenSession session;
+
 	@Parameter(required = true)
 	private List<Language> languages;
 
+	/**
+	 * Reuse the injectors of the language setups across the modules and goals of
+	 * a reactor build instead of creating them in every execution.
+	 */
+	@Parameter(property = "xtext.reuseInjectors", defaultValue = "true")
+	private Boolean reuseInjectors = Boolean.TRUE;
+
 	public MavenProject getProject() {
 		return project;
 	}
 
+	public MavenSession getSession() {
+		return session;
+	}
+
 	public List<Language> getLanguages() {
 		return languages;
 	}
@@ -59,6 +108,39 @@ public abstract class AbstractXtextMojo extends AbstractMojo {
 		return file;
 	}
 
+	/**
+	 * Registers a project in the {@link EcorePlugin#getPlatformResourceMap()}.
+	 * The map is shared by all executions in the JVM, so it is only modified if
+	 * the mapping is not yet present. Modules of a reactor usually register the
+	 * same projects, which keeps the map stable while other modules build.
+	 * 
+	 * @param name the project name
+	 * @param uri  the location of the project
+	 */
+	protected void addToPlatformResourceMap(String name, URI uri) {
+		synchronized (platformResourceMapLock) {
+			Map<String, URI> platformResourceMap = EcorePlugin.getPlatformResourceMap();
+			if (!uri.equals(platformResourceMap.get(name))) {
+				platformResourceMap.put(name, uri);
+			}
+		}
+	}
+
+	/**
+	 * @return the session wide {@link InjectorCache}, or a cache private to this
+	 *         execution if injectors should not be reused.
+	 */
+	protected InjectorCache getInjectorCache() {
+		if (reuseInjectors) {
+			return InjectorCache.forSession(session);
+		}
+		return new InjectorCache();
+	}
+
+	protected boolean isReuseInjectors() {
+		return reuseInjectors;
+	}
+
 	protected void addCompileSourceRoots(Language language) {
 		if (language.getOutputConfigurations() == null) {
 			return;
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
+
+/**
+ * The clustering policy of the standalone builder that sizes the clusters
+ * from the heap the resources retain in the current run.
+ * <p>
+ * While the builder runs, the post-GC usage of the heap pools is tracked with
+ * collection usage threshold notifications of the {@link MemoryPoolMXBean}s,
+ * which, unlike the free memory reported by {@link Runtime}, doesn't include
+ * garbage. The threshold is raised with every notification. Each notification
+ * divides the retained heap by the resources of the current cluster and
+ * derives the cluster size that fits into
+ * {@link ClusteringConfig#getTargetHeapPercent()} of the heap, so the
+ * following clusters of the same run use it. The highest memory per resource
+ * of a run is stored in a profile and used until the first notification of
+ * the next run. The free memory thresholds of the {@link ClusteringConfig}
+ * apply as well.
+ * <p>
+ * The collection usage thresholds are JVM global, so only one run at a time is
+ * measured. Parallel executions use the profile and the free memory
+ * thresholds.
+ *
+ * @since 2.31
+ */
+public class AdaptiveClustering implements IResourceClusteringPolicy {
+
+	private static final long THRESHOLD_STEP = 1024 * 1024;
+
+	private static final long MB = 1024 * 1024;
+
+	private static final Object monitorLock = new Object();
+
+	private static AdaptiveClustering activeMonitor;
+
+	private final ClusteringConfig config;
+
+	private final int minimumClusterSize;
+
+	private final File profileFile;
+
+	private final ResourceLoadCounter loadCounter;
+
+	private final Log log;
+
+	private final List<MemoryPoolMXBean> pools = new ArrayList<>();
+
+	private final NotificationListener listener = this::handleNotification;
+
+	private long baseline;
+
+	private long budget;
+
+	private long bytesPerResource;
+
+	private volatile int clusterSize = -1;
+
+	private volatile int resourcesInCluster;
+
+	private int thresholdNotifications;
+
+	private int splits;
+
+	/**
+	 * @param minimumClusterSize the lower bound of the cluster size
+	 * @param profileFile        the file the memory per resource is kept in
+	 *                           between runs
+	 * @param loadCounter        counts the loads of the builder's resource set
+	 */
+	public AdaptiveClustering(ClusteringConfig config, int minimumClusterSize, File profileFile,
+			ResourceLoadCounter loadCounter, Log log) {
+		this.config = config;
+		this.minimumClusterSize = minimumClusterSize;
+		this.profileFile = profileFile;
+		this.loadCounter = loadCounter;
+		this.log = log;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()) {
+				pools.add(pool);
+			}
+		}
+	}
+
+	/**
+	 * Starts tracking the retained heap, unless another run is measured already,
+	 * and derives the initial cluster size from the profile of the previous run.
+	 */
+	public void startMonitoring() {
+		baseline = getRetainedHeap();
+		budget = Runtime.getRuntime().maxMemory() * config.getTargetHeapPercent() / 100 - baseline;
+		long profiledBytesPerResource = loadBytesPerResource();
+		if (profiledBytesPerResource > 0) {
+			clusterSize = computeClusterSize(profiledBytesPerResource);
+			log.info("Adaptive clustering: " + profiledBytesPerResource / 1024
+					+ "KB retained per resource in the previous run, initial cluster size " + clusterSize + ".");
+		} else {
+			log.info("Adaptive clustering: no profile of a previous run, sizing the clusters after the first GC.");
+		}
+		synchronized (monitorLock) {
+			if (activeMonitor != null || pools.isEmpty()) {
+				log.debug("Adaptive clustering: memory is already monitored, this run is not measured.");
+				return;
+			}
+			activeMonitor = this;
+			for (MemoryPoolMXBean pool : pools) {
+				setThreshold(pool, getCollectionUsage(pool) + THRESHOLD_STEP);
+			}
+			((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(listener, null, null);
+		}
+	}
+
+	/**
+	 * Stops tracking the retained heap and stores the measured memory per
+	 * resource for the next run.
+	 */
+	public void stopMonitoring() {
+		synchronized (monitorLock) {
+			if (activeMonitor == this) {
+				activeMonitor = null;
+				try {
+					((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(listener);
+				} catch (ListenerNotFoundException e) {
+					// already removed
+				}
+				for (MemoryPoolMXBean pool : pools) {
+					pool.setCollectionUsageThreshold(0);
+				}
+			}
+		}
+		log.info("Adaptive clustering: " + (splits + 1) + " cluster(s), " + loadCounter.getReloads()
+				+ " resource reload(s), cluster size " + (clusterSize > 0 ? clusterSize : "unlimited") + " ("
+				+ thresholdNotifications + " GC notification(s)).");
+		if (bytesPerResource > 0) {
+			storeBytesPerResource(bytesPerResource);
+		}
+	}
+
+	/**
+	 * @param alreadyProcessed the number of resources loaded since the resource
+	 *                         set was cleared the last time
+	 */
+	@Override
+	public boolean continueProcessing(ResourceSet resourceSet, URI next, int alreadyProcessed) {
+		return continueProcessing(alreadyProcessed, 1);
+	}
+
+	/**
+	 * @param alreadyProcessed the number of resources loaded since the resource
+	 *                         set was cleared the last time
+	 * @param nextResources    the number of resources that should be loaded into
+	 *                         the same cluster as the next one
+	 * @return whether the cluster has room for the next resources
+	 */
+	boolean continueProcessing(int alreadyProcessed, int nextResources) {
+		resourcesInCluster = alreadyProcessed;
+		if (alreadyProcessed == 0 || alreadyProcessed < minimumClusterSize) {
+			return true;
+		}
+		int limit = clusterSize;
+		if (limit > 0 && alreadyProcessed + nextResources > limit || isFreeMemoryLow()) {
+			splits++;
+			resourcesInCluster = 0;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether the free memory is below the thresholds of the
+	 *         {@link ClusteringConfig}
+	 */
+	protected boolean isFreeMemoryLow() {
+		return isFreeMemoryLow(config, 0);
+	}
+
+	/**
+	 * @param requiredMemory the memory the next resources are expected to take
+	 * @return whether the free memory after loading the next resources is below
+	 *         the thresholds of the {@link ClusteringConfig}
+	 */
+	static boolean isFreeMemoryLow(ClusteringConfig config, long requiredMemory) {
+		Runtime runtime = Runtime.getRuntime();
+		long maxMemory = runtime.maxMemory();
+		long freeMemory = maxMemory - (runtime.totalMemory() - runtime.freeMemory()) - requiredMemory;
+		return freeMemory < config.getMinimumFreeMemory() * MB
+				|| freeMemory * 100 / maxMemory < config.getMinimumPercentFreeMemory();
+	}
+
+	/**
+	 * @return the current cluster size, or -1 if neither this nor the previous
+	 *         run measured the memory per resource yet
+	 */
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	private int computeClusterSize(long bytesPerResource) {
+		return (int) Math.max(minimumClusterSize, Math.min(Integer.MAX_VALUE, Math.max(budget, 0) / bytesPerResource));
+	}
+
+	private void handleNotification(Notification notification, Object handback) {
+		if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+			return;
+		}
+		MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+		synchronized (monitorLock) {
+			if (activeMonitor != this) {
+				return;
+			}
+			thresholdNotifications++;
+			for (MemoryPoolMXBean pool : pools) {
+				if (pool.getName().equals(info.getPoolName())) {
+					setThreshold(pool, info.getUsage().getUsed() + THRESHOLD_STEP);
+				}
+			}
+			long retained = getRetainedHeap() - baseline;
+			int resources = resourcesInCluster;
+			if (retained > 0 && resources >= minimumClusterSize) {
+				int previousClusterSize = clusterSize;
+				// the densest cluster of the run determines the size of the following ones
+				bytesPerResource = Math.max(bytesPerResource, retained / resources);
+				clusterSize = computeClusterSize(bytesPerResource);
+				if (clusterSize != previousClusterSize) {
+					log.debug("Adaptive clustering: " + retained / MB + "MB retained by " + resources
+							+ " resource(s), cluster size " + clusterSize + ".");
+				}
+			}
+		}
+	}
+
+	private void setThreshold(MemoryPoolMXBean pool, long threshold) {
+		long max = pool.getUsage().getMax();
+		pool.setCollectionUsageThreshold(max >= 0 ? Math.min(threshold, max) : threshold);
+	}
+
+	private long getRetainedHeap() {
+		long retained = 0;
+		for (MemoryPoolMXBean pool : pools) {
+			retained += getCollectionUsage(pool);
+		}
+		return retained;
+	}
+
+	private long getCollectionUsage(MemoryPoolMXBean pool) {
+		MemoryUsage usage = pool.getCollectionUsage();
+		return usage != null ? usage.getUsed() : 0;
+	}
+
+	private long loadBytesPerResource() {
+		if (!profileFile.isFile()) {
+			return -1;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(profileFile.toPath())) {
+			properties.load(in);
+			return Long.parseLong(properties.getProperty("bytesPerResource", "-1"));
+		} catch (IOException | NumberFormatException e) {
+			log.warn("Adaptive clustering: couldn't read profile " + profileFile, e);
+			return -1;
+		}
+	}
+
+	private void storeBytesPerResource(long bytesPerResource) {
+		Properties properties = new Properties();
+		properties.setProperty("bytesPerResource", Long.toString(bytesPerResource));
+		profileFile.getParentFile().mkdirs();
+		try (OutputStream out = Files.newOutputStream(profileFile.toPath())) {
+			properties.store(out, "Xtext adaptive clustering profile");
+		} catch (IOException e) {
+			log.warn("Adaptive clustering: couldn't write profile " + profileFile, e);
+		}
+	}
+
+}
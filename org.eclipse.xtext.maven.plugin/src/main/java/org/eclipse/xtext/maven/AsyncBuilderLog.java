@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Level;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.xtext.validation.Issue;
+
+/**
+ * Forwards the Log4J events of the standalone builder to the Maven log on a
+ * separate thread, so that the builder doesn't wait for the console.
+ * <p>
+ * Validation issues with the same severity, issue code and file are logged
+ * once and counted afterwards. With a limit, at most that many issues are
+ * logged per severity. {@link #close()} logs a summary of the collapsed and
+ * suppressed issues.
+ *
+ * @since 2.31
+ */
+public class AsyncBuilderLog implements AutoCloseable {
+
+	private static final int MAX_LISTED_REPETITIONS = 10;
+
+	/**
+	 * The format of {@link Issue#toString()}, for issues logged as text.
+	 */
+	private static final Pattern ISSUE_PATTERN = Pattern
+			.compile("(ERROR|WARNING|INFO):(.*) \\((\\S*) line : \\d+ column : \\d+\\)", Pattern.DOTALL);
+
+	private static class Repetition {
+		final String message;
+		final AtomicInteger count = new AtomicInteger();
+
+		Repetition(String message) {
+			this.message = message;
+		}
+	}
+
+	private static class Counts {
+		final AtomicInteger logged = new AtomicInteger();
+		final AtomicInteger repeated = new AtomicInteger();
+		final AtomicInteger aboveLimit = new AtomicInteger();
+	}
+
+	private static final Runnable END = () -> {
+	};
+
+	private final Log log;
+
+	private final int maxIssuesPerSeverity;
+
+	private final BlockingQueue<Runnable> queue;
+
+	private final Thread writer;
+
+	private final Map<String, Repetition> repetitions = new ConcurrentHashMap<>();
+
+	private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+
+	/**
+	 * @param log                  the Maven log to forward to
+	 * @param queueSize            the number of events queued before the builder
+	 *                             waits for the log
+	 * @param maxIssuesPerSeverity the number of issues logged per severity, 0 for
+	 *                             no limit
+	 */
+	public AsyncBuilderLog(Log log, int queueSize, int maxIssuesPerSeverity) {
+		this.log = log;
+		this.maxIssuesPerSeverity = maxIssuesPerSeverity;
+		this.queue = new ArrayBlockingQueue<>(queueSize);
+		this.writer = new Thread(this::forwardQueued, "xtext-builder-log");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	public void append(Level level, Object message, Throwable throwable) {
+		String severity;
+		String key;
+		String text;
+		if (message instanceof Issue) {
+			Issue issue = (Issue) message;
+			severity = issue.getSeverity().name();
+			key = severity + "|" + issue.getCode() + "|"
+					+ (issue.getUriToProblem() != null ? issue.getUriToProblem().trimFragment() : null);
+			text = null;
+		} else if (level.isGreaterOrEqual(Level.WARN)) {
+			text = String.valueOf(message);
+			Matcher matcher = ISSUE_PATTERN.matcher(text);
+			if (!matcher.matches()) {
+				enqueue(() -> MavenLog4JConfigurator.log(log, level, text, throwable));
+				return;
+			}
+			severity = matcher.group(1);
+			key = severity + "|" + matcher.group(2) + "|" + matcher.group(3);
+		} else {
+			enqueue(() -> MavenLog4JConfigurator.log(log, level, String.valueOf(message), throwable));
+			return;
+		}
+		Counts severityCounts = counts.computeIfAbsent(severity, s -> new Counts());
+		Repetition repetition = repetitions.get(key);
+		if (repetition == null) {
+			if (maxIssuesPerSeverity > 0 && severityCounts.logged.get() >= maxIssuesPerSeverity) {
+				severityCounts.aboveLimit.incrementAndGet();
+				return;
+			}
+			String issueText = text != null ? text : message.toString();
+			repetition = repetitions.putIfAbsent(key, new Repetition(issueText));
+			if (repetition == null) {
+				severityCounts.logged.incrementAndGet();
+				enqueue(() -> MavenLog4JConfigurator.log(log, level, issueText, throwable));
+				return;
+			}
+		}
+		repetition.count.incrementAndGet();
+		severityCounts.repeated.incrementAndGet();
+	}
+
+	private void enqueue(Runnable event) {
+		try {
+			queue.put(event);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			event.run();
+		}
+	}
+
+	private void forwardQueued() {
+		try {
+			for (Runnable event = queue.take(); event != END; event = queue.take()) {
+				event.run();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits until all queued events are logged and logs the summary.
+	 */
+	@Override
+	public void close() {
+		enqueue(END);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<Repetition> repeated = new ArrayList<>();
+		for (Repetition repetition : repetitions.values()) {
+			if (repetition.count.get() > 0) {
+				repeated.add(repetition);
+			}
+		}
+		if (!repeated.isEmpty()) {
+			repeated.sort(Comparator.comparing((Repetition repetition) -> repetition.count.get()).reversed());
+			log.info("Most repeated issues:");
+			for (Repetition repetition : repeated.subList(0, Math.min(MAX_LISTED_REPETITIONS, repeated.size()))) {
+				log.info("  " + repetition.message + " (repeated " + repetition.count + " time(s))");
+			}
+		}
+		for (Map.Entry<String, Counts> entry : new TreeMap<>(counts).entrySet()) {
+			Counts value = entry.getValue();
+			if (value.repeated.get() > 0 || value.aboveLimit.get() > 0) {
+				StringBuilder summary = new StringBuilder(entry.getKey()).append(": ").append(value.logged)
+						.append(" issue(s) logged, ").append(value.repeated).append(" repeated");
+				if (maxIssuesPerSeverity > 0) {
+					summary.append(" and ").append(value.aboveLimit).append(" above the limit of ")
+							.append(maxIssuesPerSeverity);
+				}
+				log.info(summary.append(" suppressed."));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes generated files on a bounded pool of writer threads, so that the
+ * generator doesn't wait for slow (e.g. network mounted) file systems.
+ * <p>
+ * The content of the queued files is limited by a memory budget: {@link #write}
+ * blocks while the queued content exceeds it. Each directory is created once
+ * by the first file written into it. The first write error is kept and
+ * rethrown by every following {@link #write} and {@link #flush()}, until the
+ * writer is {@link #close() closed}.
+ *
+ * @since 2.31
+ */
+public class AsyncFileWriter implements AutoCloseable {
+
+	/**
+	 * Writes the content to the file, whose directory already exists.
+	 */
+	public interface WriteOperation {
+		void write(File file, byte[] content) throws IOException;
+	}
+
+	private final ExecutorService executor;
+
+	private final long memoryBudget;
+
+	private final Map<File, Boolean> createdDirectories = new ConcurrentHashMap<>();
+
+	private long queuedBytes;
+
+	private int pendingWrites;
+
+	private IOException failure;
+
+	/**
+	 * @param threads      the number of writer threads
+	 * @param memoryBudget the number of bytes of queued content above which
+	 *                     {@link #write} blocks
+	 */
+	public AsyncFileWriter(int threads, long memoryBudget) {
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "xtext-file-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Queues the file, blocking while the memory budget is exhausted. A single
+	 * file larger than the budget is queued once the queue is empty.
+	 *
+	 * @throws IOException if a previously queued file failed to be written, or
+	 *                     the writer is closed
+	 */
+	public void write(File file, byte[] content, WriteOperation operation) throws IOException {
+		synchronized (this) {
+			throwFailure();
+			while (pendingWrites > 0 && queuedBytes + content.length > memoryBudget) {
+				await();
+				throwFailure();
+			}
+			queuedBytes += content.length;
+			pendingWrites++;
+		}
+		try {
+			submit(file, content, operation);
+		} catch (RejectedExecutionException e) {
+			synchronized (this) {
+				queuedBytes -= content.length;
+				pendingWrites--;
+				notifyAll();
+			}
+			throw new IOException("The file writer is closed, couldn't write " + file, e);
+		}
+	}
+
+	private void submit(File file, byte[] content, WriteOperation operation) {
+		executor.execute(() -> {
+			try {
+				createDirectory(file.getParentFile());
+				operation.write(file, content);
+			} catch (IOException | RuntimeException e) {
+				synchronized (this) {
+					if (failure == null) {
+						failure = new IOException("Failed to write " + file, e);
+					}
+				}
+			} finally {
+				synchronized (this) {
+					queuedBytes -= content.length;
+					pendingWrites--;
+					notifyAll();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Waits until all queued files are written.
+	 *
+	 * @throws IOException the first error that occurred while writing
+	 */
+	public synchronized void flush() throws IOException {
+		while (pendingWrites > 0) {
+			await();
+		}
+		throwFailure();
+	}
+
+	/**
+	 * Stops the writer threads, files still queued are discarded and a kept
+	 * write error is dropped.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			// the discarded files never ran, so nobody else releases them
+			queuedBytes = 0;
+			pendingWrites = 0;
+			failure = null;
+			notifyAll();
+		}
+	}
+
+	private void createDirectory(File directory) throws IOException {
+		if (directory == null) {
+			return;
+		}
+		if (!createdDirectories.computeIfAbsent(directory, dir -> dir.mkdirs() || dir.isDirectory())) {
+			createdDirectories.remove(directory);
+			throw new IOException("Failed to create directory " + directory);
+		}
+	}
+
+	private void await() throws InterruptedIOException {
+		try {
+			wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the file writer");
+		}
+	}
+
+	private void throwFailure() throws IOException {
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+}
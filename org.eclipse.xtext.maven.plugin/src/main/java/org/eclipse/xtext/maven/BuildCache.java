@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * A directory of the output directories of earlier generator runs, keyed by a
+ * hash of the content of their inputs. Unlike the {@link BuildFingerprint}, the
+ * key doesn't depend on file locations or modification times, so a run can be
+ * restored from the outputs of a build in another checkout or on another
+ * branch, as long as the directory is shared.
+ * <p>
+ * Each entry is written to a temporary directory and moved into place when
+ * complete, so concurrent builds never see partial entries. The number of hits
+ * and misses and the time saved are kept in the directory as well.
+ *
+ * @since 2.31
+ */
+public class BuildCache {
+
+	private static final String ENTRY_FILE = "entry.properties";
+
+	private static final String STATISTICS_FILE = "statistics.properties";
+
+	/**
+	 * Computes the key of a cache entry from the content of the inputs.
+	 */
+	public static class KeyBuilder {
+
+		private final Hasher hasher = Hashing.sha256().newHasher();
+
+		public KeyBuilder addValues(String component, Iterable<?> values) {
+			putString(component);
+			for (Object value : values) {
+				putString(String.valueOf(value));
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the relative paths and the content of the files in the given
+		 * directory, except for the excluded ones. A missing directory is recorded
+		 * as such.
+		 */
+		public KeyBuilder addDirectory(String name, File directory, Predicate<Path> excluded) throws IOException {
+			putString(name);
+			if (!directory.isDirectory()) {
+				hasher.putByte((byte) -1);
+				return this;
+			}
+			Path root = directory.toPath();
+			List<Path> files;
+			try (Stream<Path> walker = Files.walk(root)) {
+				files = walker.filter(path -> !excluded.test(path) && Files.isRegularFile(path)).sorted()
+						.collect(Collectors.toList());
+			}
+			for (Path file : files) {
+				putString(root.relativize(file).toString().replace(File.separatorChar, '/'));
+				byte[] content = Files.readAllBytes(file);
+				hasher.putInt(content.length).putBytes(content);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the name of the given jar and the names and checksums of its
+		 * entries, which are read from its central directory without extracting
+		 * them. Files that aren't jars contribute with their content.
+		 */
+		public KeyBuilder addJar(File jar) throws IOException {
+			putString(jar.getName());
+			try (ZipFile zipFile = new ZipFile(jar)) {
+				for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+					ZipEntry entry = entries.nextElement();
+					putString(entry.getName());
+					hasher.putLong(entry.getCrc()).putLong(entry.getSize());
+				}
+			} catch (ZipException e) {
+				byte[] content = Files.readAllBytes(jar.toPath());
+				hasher.putInt(content.length).putBytes(content);
+			}
+			return this;
+		}
+
+		private void putString(String value) {
+			hasher.putString(value, StandardCharsets.UTF_8).putByte((byte) 0);
+		}
+
+		public String build() {
+			return hasher.hash().toString();
+		}
+	}
+
+	private final File directory;
+
+	public BuildCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Copies the outputs stored for the given key to the output directories.
+	 * Files with the same content are left untouched. Files of the cleaned
+	 * directories that aren't part of the entry are deleted, the other
+	 * directories keep them.
+	 *
+	 * @param cleanedDirectories the output directories that contain only
+	 *                           generated files
+	 * @return the number of files restored and deleted, or -1 if there is no
+	 *         entry for the key
+	 */
+	public int restore(String key, List<File> outputDirectories, Set<File> cleanedDirectories) throws IOException {
+		File entry = new File(directory, key);
+		Properties properties = readEntry(entry);
+		if (properties == null
+				|| !String.valueOf(outputDirectories.size()).equals(properties.getProperty("outputDirectories"))) {
+			return -1;
+		}
+		int files = 0;
+		for (int i = 0; i < outputDirectories.size(); i++) {
+			Path source = new File(entry, String.valueOf(i)).toPath();
+			Path target = outputDirectories.get(i).toPath();
+			files += copy(source, target, path -> false, true);
+			if (cleanedDirectories.contains(outputDirectories.get(i))) {
+				files += deleteMissing(source, target);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * @return the time the build took that stored the entry of the given key, 0
+	 *         if unknown
+	 */
+	public long getBuildTime(String key) throws IOException {
+		Properties properties = readEntry(new File(directory, key));
+		return properties != null ? Long.parseLong(properties.getProperty("buildTime", "0")) : 0;
+	}
+
+	/**
+	 * Stores the content of the output directories for the given key, unless
+	 * another build stored it in the meantime.
+	 *
+	 * @param buildTime the time it took to generate the outputs
+	 * @param excluded  the files that aren't stored
+	 * @return the number of files stored
+	 */
+	public int store(String key, List<File> outputDirectories, long buildTime, Predicate<Path> excluded)
+			throws IOException {
+		directory.mkdirs();
+		Path tmpEntry = Files.createTempDirectory(directory.toPath(), key + ".tmp");
+		try {
+			int files = 0;
+			for (int i = 0; i < outputDirectories.size(); i++) {
+				Path target = tmpEntry.resolve(String.valueOf(i));
+				Files.createDirectories(target);
+				files += copy(outputDirectories.get(i).toPath(), target, excluded, false);
+			}
+			Properties properties = new Properties();
+			properties.setProperty("outputDirectories", String.valueOf(outputDirectories.size()));
+			properties.setProperty("buildTime", String.valueOf(buildTime));
+			try (OutputStream out = Files.newOutputStream(tmpEntry.resolve(ENTRY_FILE))) {
+				properties.store(out, "Xtext build cache entry");
+			}
+			try {
+				Files.move(tmpEntry, directory.toPath().resolve(key), StandardCopyOption.ATOMIC_MOVE);
+			} catch (FileAlreadyExistsException e) {
+				// stored by a concurrent build
+			} catch (IOException e) {
+				if (!new File(directory, key).isDirectory()) {
+					throw e;
+				}
+			}
+			return files;
+		} finally {
+			delete(tmpEntry);
+		}
+	}
+
+	private Properties readEntry(File entry) throws IOException {
+		File entryFile = new File(entry, ENTRY_FILE);
+		if (!entryFile.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(entryFile.toPath())) {
+			properties.load(in);
+		}
+		return properties;
+	}
+
+	private int copy(Path source, Path target, Predicate<Path> excluded, boolean changedOnly) throws IOException {
+		if (!Files.isDirectory(source)) {
+			return 0;
+		}
+		List<Path> files;
+		try (Stream<Path> walker = Files.walk(source)) {
+			files = walker.filter(path -> !excluded.test(path) && Files.isRegularFile(path))
+					.collect(Collectors.toList());
+		}
+		int count = 0;
+		for (Path file : files) {
+			Path targetFile = target.resolve(source.relativize(file).toString());
+			if (changedOnly && Files.isRegularFile(targetFile) && Files.size(targetFile) == Files.size(file)
+					&& Arrays.equals(Files.readAllBytes(targetFile), Files.readAllBytes(file))) {
+				continue;
+			}
+			Files.createDirectories(targetFile.getParent());
+			Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Deletes the files of the target directory that the source directory
+	 * doesn't contain.
+	 */
+	private int deleteMissing(Path source, Path target) throws IOException {
+		if (!Files.isDirectory(target)) {
+			return 0;
+		}
+		List<Path> files;
+		try (Stream<Path> walker = Files.walk(target)) {
+			files = walker.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+		int count = 0;
+		for (Path file : files) {
+			if (!Files.isRegularFile(source.resolve(target.relativize(file).toString()))) {
+				Files.delete(file);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void delete(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
+		List<Path> paths;
+		try (Stream<Path> walker = Files.walk(path)) {
+			paths = walker.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+		}
+		for (Path each : paths) {
+			Files.deleteIfExists(each);
+		}
+	}
+
+	/**
+	 * The hits and misses of all builds using the cache directory.
+	 */
+	public static class Statistics {
+		long hits;
+		long misses;
+		long savedTime;
+
+		@Override
+		public String toString() {
+			long total = hits + misses;
+			return hits + " hit(s), " + misses + " miss(es), hit rate " + (total > 0 ? hits * 100 / total : 0)
+					+ "%, " + savedTime + "ms saved in total";
+		}
+	}
+
+	/**
+	 * Counts a hit or a miss and the time saved by a hit. The statistics file is
+	 * locked, so that the builds of all JVMs sharing the directory are counted.
+	 *
+	 * @return the updated statistics
+	 */
+	public Statistics recordStatistics(boolean hit, long savedTime) throws IOException {
+		Statistics result = new Statistics();
+		new SharedPropertiesFile(new File(directory, STATISTICS_FILE), "Xtext build cache statistics")
+				.update(properties -> {
+					result.hits = Long.parseLong(properties.getProperty("hits", "0"));
+					result.misses = Long.parseLong(properties.getProperty("misses", "0"));
+					result.savedTime = Long.parseLong(properties.getProperty("savedTime", "0"));
+					if (hit) {
+						result.hits++;
+						result.savedTime += Math.max(savedTime, 0);
+					} else {
+						result.misses++;
+					}
+					properties.setProperty("hits", String.valueOf(result.hits));
+					properties.setProperty("misses", String.valueOf(result.misses));
+					properties.setProperty("savedTime", String.valueOf(result.savedTime));
+				});
+		return result;
+	}
+
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * A fingerprint of the inputs of a generator run, split into named components
+ * so that the reason of a rebuild can be reported. Files contribute with their
+ * path, size and modification time, directories with all files they contain.
+ * 
+ * @since 2.31
+ */
+public class BuildFingerprint {
+
+	private final Map<String, String> components = new TreeMap<>();
+
+	/**
+	 * Adds a component that is made up of the string representation of the given
+	 * values.
+	 */
+	public BuildFingerprint addValues(String component, Iterable<?> values) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (Object value : values) {
+			hasher.putString(String.valueOf(value), StandardCharsets.UTF_8).putByte((byte) 0);
+		}
+		components.put(component, hasher.hash().toString());
+		return this;
+	}
+
+	/**
+	 * Adds a component that is made up of the given files, replacing a component
+	 * with the same name. Directories are traversed recursively, missing files
+	 * are recorded as such.
+	 */
+	public BuildFingerprint addFiles(String component, Iterable<String> paths) throws IOException {
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (String path : paths) {
+			hasher.putString(path, StandardCharsets.UTF_8).putByte((byte) 0);
+			File file = new File(path);
+			if (file.isDirectory()) {
+				Path root = file.toPath();
+				List<Path> children;
+				try (Stream<Path> walker = Files.walk(root)) {
+					children = walker.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+				}
+				for (Path child : children) {
+					hasher.putString(root.relativize(child).toString(), StandardCharsets.UTF_8);
+					putFile(hasher, child.toFile());
+				}
+			} else if (file.isFile()) {
+				putFile(hasher, file);
+			} else {
+				hasher.putByte((byte) -1);
+			}
+		}
+		components.put(component, hasher.hash().toString());
+		return this;
+	}
+
+	private void putFile(Hasher hasher, File file) {
+		hasher.putLong(file.length()).putLong(file.lastModified());
+	}
+
+	/**
+	 * @return the names of the components that differ from the given fingerprint
+	 */
+	public List<String> getChangedComponents(BuildFingerprint previous) {
+		List<String> changed = new ArrayList<>();
+		for (Map.Entry<String, String> component : components.entrySet()) {
+			if (!component.getValue().equals(previous.components.get(component.getKey()))) {
+				changed.add(component.getKey());
+			}
+		}
+		for (String component : previous.components.keySet()) {
+			if (!components.containsKey(component)) {
+				changed.add(component);
+			}
+		}
+		return changed;
+	}
+
+	public void store(File file) throws IOException {
+		Properties properties = new Properties();
+		properties.putAll(components);
+		file.getParentFile().mkdirs();
+		try (OutputStream out = Files.newOutputStream(file.toPath())) {
+			properties.store(out, "Xtext generator input fingerprint");
+		}
+	}
+
+	/**
+	 * @return the stored fingerprint or <code>null</code> if the file doesn't
+	 *         exist
+	 */
+	public static BuildFingerprint load(File file) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			properties.load(in);
+		}
+		BuildFingerprint fingerprint = new BuildFingerprint();
+		for (String name : properties.stringPropertyNames()) {
+			fingerprint.components.put(name, properties.getProperty(name));
+		}
+		return fingerprint;
+	}
+
+}
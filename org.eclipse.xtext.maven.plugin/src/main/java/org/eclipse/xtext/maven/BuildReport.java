@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time, allocated bytes and number of resources of the phases of one
+ * generator execution, written as JSON.
+ * <p>
+ * The {@link MavenStandaloneBuilder} records its steps <code>indexing</code>,
+ * <code>validation</code> and <code>generation</code> per file extension, and
+ * <code>stub generation</code> and <code>stub compilation</code> for all
+ * languages. The {@link MavenBuilderResourceSet} records
+ * <code>parsing</code> and <code>linking</code> per file extension, and the
+ * {@link MavenFileSystemAccess} records <code>writing</code> per language
+ * setup. Phases overlap: a step of the builder includes the parsing and
+ * linking it triggers, and the generation includes the writing of files that
+ * aren't written asynchronously.
+ * 
+ * @since 2.31
+ */
+public class BuildReport {
+
+	private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	private final long startedAt = System.currentTimeMillis();
+
+	private final long startNanos = System.nanoTime();
+
+	/**
+	 * Starts measuring a phase on the current thread.
+	 */
+	public Phase start(String name) {
+		return start(name, null);
+	}
+
+	/**
+	 * Starts measuring a phase of the given language on the current thread.
+	 */
+	public Phase start(String name, String language) {
+		return new Phase(name, language);
+	}
+
+	/**
+	 * Records that a resource has been loaded in the given language.
+	 */
+	public synchronized void resourceLoaded(String language, long nanos, long allocatedBytes) {
+		record("parsing", language, nanos, allocatedBytes, 1);
+	}
+
+	private synchronized void record(String name, String language, long nanos, long allocatedBytes, int resources) {
+		Entry entry = entries.computeIfAbsent(language == null ? name : name + '\u0000' + language,
+				k -> new Entry(name, language));
+		entry.nanos += nanos;
+		if (allocatedBytes >= 0) {
+			entry.allocatedBytes += allocatedBytes;
+		}
+		entry.resources += resources;
+	}
+
+	/**
+	 * Writes the report as a JSON object.
+	 */
+	public synchronized void write(File file, String execution, boolean succeeded) throws IOException {
+		file.getParentFile().mkdirs();
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("{\n");
+			writer.write("  \"execution\": " + quote(execution) + ",\n");
+			writer.write("  \"startedAt\": " + startedAt + ",\n");
+			writer.write("  \"wallMillis\": " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + ",\n");
+			writer.write("  \"succeeded\": " + succeeded + ",\n");
+			writer.write("  \"phases\": [");
+			String separator = "\n";
+			for (Entry entry : entries.values()) {
+				writer.write(separator);
+				writer.write("    {\"name\": " + quote(entry.name) + ", \"language\": "
+						+ (entry.language == null ? "null" : quote(entry.language)) + ", \"wallMillis\": "
+						+ TimeUnit.NANOSECONDS.toMillis(entry.nanos) + ", \"allocatedBytes\": " + entry.allocatedBytes
+						+ ", \"resources\": " + entry.resources + "}");
+				separator = ",\n";
+			}
+			writer.write("\n  ]\n}\n");
+		}
+	}
+
+	private static String quote(String value) {
+		StringBuilder result = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				result.append('\\').append(c);
+			} else if (c < 0x20) {
+				result.append(String.format("\\u%04x", (int) c));
+			} else {
+				result.append(c);
+			}
+		}
+		return result.append('"').toString();
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread so far, or -1 if the JVM
+	 *         doesn't measure them
+	 */
+	public static long getAllocatedBytes() {
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+			if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+				return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	private static class Entry {
+
+		private final String name;
+
+		private final String language;
+
+		private long nanos;
+
+		private long allocatedBytes;
+
+		private int resources;
+
+		private Entry(String name, String language) {
+			this.name = name;
+			this.language = language;
+		}
+	}
+
+	/**
+	 * A running measurement, recorded when it is closed.
+	 */
+	public class Phase implements AutoCloseable {
+
+		private final String name;
+
+		private final String language;
+
+		private final long startNanos = System.nanoTime();
+
+		private final long startAllocatedBytes = getAllocatedBytes();
+
+		private int resources;
+
+		private Phase(String name, String language) {
+			this.name = name;
+			this.language = language;
+		}
+
+		public void addResources(int count) {
+			resources += count;
+		}
+
+		@Override
+		public void close() {
+			long allocatedBytes = startAllocatedBytes >= 0 ? getAllocatedBytes() - startAllocatedBytes : -1;
+			record(name, language, System.nanoTime() - startNanos, allocatedBytes, resources);
+		}
+	}
+
+}
@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.xtext.builder.standalone.LanguageAccess;
+import org.eclipse.xtext.resource.XtextResourceSet;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+
+/**
+ * The main class of a separate JVM that runs the standalone builder for the
+ * generator mojos, so that large builds don't need the heap of the Maven JVM.
+ * <p>
+ * The worker reads a secret from the first line of its standard input, listens
+ * on a local socket and prints its port to the standard output when it is
+ * ready. A connection has to start with the secret, otherwise it is closed
+ * before anything is deserialized. The worker then runs one
+ * {@link WorkerBuildRequest} per connection and sends the log events of the
+ * build and finally its {@link Result} back. Only the classes of the request
+ * are accepted by the deserialization. The language injectors are kept
+ * between the builds. The worker exits when its standard input is closed, i.e.
+ * when the Maven JVM is gone, and after an {@link OutOfMemoryError}.
+ *
+ * @since 2.31
+ */
+public class BuilderWorker {
+
+	/**
+	 * Precedes the port in the line the worker prints when it is ready.
+	 */
+	static final String PORT_PREFIX = "xtext-builder-worker-port:";
+
+	/**
+	 * The classes a {@link WorkerBuildRequest} consists of.
+	 */
+	static final ObjectInputFilter REQUEST_FILTER = ObjectInputFilter.Config.createFilter(
+			WorkerBuildRequest.class.getName() + ";" + Language.class.getName() + ";"
+					+ OutputConfiguration.class.getName() + ";" + OutputConfiguration.SourceMapping.class.getName()
+					+ ";" + ClusteringConfig.class.getName()
+					+ ";java.util.ArrayList;java.util.HashMap;java.lang.String;java.lang.Boolean;java.lang.Integer"
+					+ ";java.lang.Long;java.lang.Number;maxdepth=10;maxrefs=1000000;!*");
+
+	/**
+	 * The classes the worker sends back.
+	 */
+	static final ObjectInputFilter RESPONSE_FILTER = ObjectInputFilter.Config.createFilter(LogEvent.class.getName()
+			+ ";" + Result.class.getName() + ";java.lang.String;maxdepth=5;!*");
+
+	/**
+	 * The time a client has to send the secret after connecting.
+	 */
+	private static final int HANDSHAKE_TIMEOUT = 10000;
+
+	/**
+	 * A message logged by the builder in the worker.
+	 */
+	public static class LogEvent implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final String level;
+		final String message;
+		final String stackTrace;
+
+		LogEvent(String level, CharSequence message, Throwable throwable) {
+			this.level = level;
+			this.message = message != null ? message.toString() : null;
+			this.stackTrace = throwable != null ? getStackTrace(throwable) : null;
+		}
+
+		void log(Log log) {
+			String text = stackTrace == null ? message
+					: message == null ? stackTrace : message + System.lineSeparator() + stackTrace;
+			switch (level) {
+			case "debug":
+				log.debug(text);
+				break;
+			case "warn":
+				log.warn(text);
+				break;
+			case "error":
+				log.error(text);
+				break;
+			default:
+				log.info(text);
+			}
+		}
+	}
+
+	/**
+	 * The outcome of a build in the worker.
+	 */
+	public static class Result implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final boolean success;
+		final String failure;
+		final boolean workerExits;
+
+		Result(boolean success, String failure, boolean workerExits) {
+			this.success = success;
+			this.failure = failure;
+			this.workerExits = workerExits;
+		}
+
+		/**
+		 * @return whether the builder finished without errors
+		 */
+		public boolean isSuccess() {
+			return success;
+		}
+
+		/**
+		 * @return the stack trace of the exception that aborted the build, or
+		 *         <code>null</code>
+		 */
+		public String getFailure() {
+			return failure;
+		}
+
+		/**
+		 * @return whether the worker exits after this build, e.g. because it ran
+		 *         out of memory
+		 */
+		public boolean isWorkerExiting() {
+			return workerExits;
+		}
+	}
+
+	/**
+	 * Sends the messages logged during a build to the mojo.
+	 */
+	private static class WorkerLog implements Log {
+
+		private final ObjectOutputStream out;
+
+		private final boolean debugEnabled;
+
+		WorkerLog(ObjectOutputStream out, boolean debugEnabled) {
+			this.out = out;
+			this.debugEnabled = debugEnabled;
+		}
+
+		private void send(String level, CharSequence message, Throwable throwable) {
+			if ("debug".equals(level) && !debugEnabled) {
+				return;
+			}
+			synchronized (out) {
+				try {
+					out.writeObject(new LogEvent(level, message, throwable));
+					out.reset();
+					out.flush();
+				} catch (IOException e) {
+					// the mojo is gone, the build fails on the next write
+				}
+			}
+		}
+
+		@Override
+		public boolean isDebugEnabled() {
+			return debugEnabled;
+		}
+
+		@Override
+		public void debug(CharSequence content) {
+			send("debug", content, null);
+		}
+
+		@Override
+		public void debug(CharSequence content, Throwable error) {
+			send("debug", content, error);
+		}
+
+		@Override
+		public void debug(Throwable error) {
+			send("debug", null, error);
+		}
+
+		@Override
+		public boolean isInfoEnabled() {
+			return true;
+		}
+
+		@Override
+		public void info(CharSequence content) {
+			send("info", content, null);
+		}
+
+		@Override
+		public void info(CharSequence content, Throwable error) {
+			send("info", content, error);
+		}
+
+		@Override
+		public void info(Throwable error) {
+			send("info", null, error);
+		}
+
+		@Override
+		public boolean isWarnEnabled() {
+			return true;
+		}
+
+		@Override
+		public void warn(CharSequence content) {
+			send("warn", content, null);
+		}
+
+		@Override
+		public void warn(CharSequence content, Throwable error) {
+			send("warn", content, error);
+		}
+
+		@Override
+		public void warn(Throwable error) {
+			send("warn", null, error);
+		}
+
+		@Override
+		public boolean isErrorEnabled() {
+			return true;
+		}
+
+		@Override
+		public void error(CharSequence content) {
+			send("error", content, null);
+		}
+
+		@Override
+		public void error(CharSequence content, Throwable error) {
+			send("error", content, error);
+		}
+
+		@Override
+		public void error(Throwable error) {
+			send("error", null, error);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		PrintStream stdout = System.out;
+		System.setOut(System.err);
+		byte[] secret = readSecret();
+		Thread parentWatcher = new Thread(() -> {
+			try {
+				while (System.in.read() >= 0) {
+					// wait until the Maven JVM closes the pipe
+				}
+			} catch (IOException e) {
+				// the Maven JVM is gone
+			}
+			System.exit(0);
+		}, "xtext-builder-worker-parent");
+		parentWatcher.setDaemon(true);
+		parentWatcher.start();
+		try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			stdout.println(PORT_PREFIX + serverSocket.getLocalPort());
+			stdout.flush();
+			BuilderWorker worker = new BuilderWorker(secret);
+			while (true) {
+				try (Socket socket = serverSocket.accept()) {
+					worker.serve(socket);
+				} catch (IOException e) {
+					System.err.println("Xtext builder worker: lost the connection to the mojo: " + e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the first line of the standard input byte by byte, so that nothing
+	 * after it is consumed.
+	 */
+	private static byte[] readSecret() throws IOException {
+		ByteArrayOutputStream secret = new ByteArrayOutputStream();
+		for (int b = System.in.read(); b != '\n'; b = System.in.read()) {
+			if (b < 0) {
+				throw new EOFException("No secret on the standard input.");
+			}
+			secret.write(b);
+		}
+		return secret.toByteArray();
+	}
+
+	private final InjectorCache injectorCache = new InjectorCache();
+
+	private final byte[] secret;
+
+	protected BuilderWorker(byte[] secret) {
+		this.secret = secret;
+	}
+
+	protected void serve(Socket socket) throws IOException {
+		socket.setSoTimeout(HANDSHAKE_TIMEOUT);
+		byte[] clientSecret = new DataInputStream(socket.getInputStream()).readUTF()
+				.getBytes(StandardCharsets.UTF_8);
+		if (!MessageDigest.isEqual(secret, clientSecret)) {
+			System.err.println("Xtext builder worker: rejected a connection without the secret.");
+			return;
+		}
+		socket.setSoTimeout(0);
+		ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		out.flush();
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+		in.setObjectInputFilter(REQUEST_FILTER);
+		WorkerBuildRequest request;
+		try {
+			request = (WorkerBuildRequest) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+		WorkerLog log = new WorkerLog(out, request.debugLog);
+		Result result;
+		boolean exit = false;
+		try {
+			result = new Result(build(request, log), null, false);
+		} catch (OutOfMemoryError e) {
+			result = new Result(false, "The builder worker ran out of memory, increase its heap with xtext.fork.jvmArgs.",
+					true);
+			exit = true;
+		} catch (Exception | LinkageError e) {
+			result = new Result(false, getStackTrace(e), false);
+		}
+		synchronized (out) {
+			out.writeObject(result);
+			out.flush();
+		}
+		if (exit) {
+			System.exit(1);
+		}
+	}
+
+	protected boolean build(WorkerBuildRequest request, Log log) throws IOException {
+		MavenLog4JConfigurator log4JConfigurator = new MavenLog4JConfigurator();
+		log4JConfigurator.configureLog4j(log);
+		// the map contains only the projects of the current build, not the ones of
+		// the modules built before
+		Map<String, URI> platformResourceMap = EcorePlugin.getPlatformResourceMap();
+		platformResourceMap.clear();
+		for (Map.Entry<String, String> project : request.platformResourceMap.entrySet()) {
+			platformResourceMap.put(project.getKey(), URI.createURI(project.getValue()));
+		}
+		ClassLoader classLoader = getClass().getClassLoader();
+		CachingLanguageAccessFactory languageAccessFactory = new CachingLanguageAccessFactory(injectorCache);
+		GeneratedFileStatistics generatedFileStatistics = new GeneratedFileStatistics();
+		languageAccessFactory.setGeneratedFileStatistics(generatedFileStatistics);
+		languageAccessFactory.setWriteChangedFilesOnly(request.writeChangedFilesOnly);
+		LanguageFileExtensionIndex languageIndex = null;
+		if (request.languageIndexFile != null) {
+			try {
+				languageIndex = LanguageFileExtensionIndex.get(new File(request.languageIndexFile));
+				languageAccessFactory.setFileExtensionIndex(languageIndex);
+			} catch (IOException e) {
+				log.warn("Couldn't read language file extension index " + request.languageIndexFile, e);
+			}
+		}
+		Injector injector = null;
+		try {
+			Map<String, LanguageAccess> languages = languageAccessFactory.createLanguageAccess(request.languages,
+					classLoader);
+			if (languageIndex != null) {
+				try {
+					languageIndex.save();
+				} catch (IOException e) {
+					log.warn("Couldn't write language file extension index " + request.languageIndexFile, e);
+				}
+			}
+			PrecomputedResourceDescriptions mainIndexDescriptions = new PrecomputedResourceDescriptions();
+			// the builder doesn't need to load the models described by the index
+			boolean mainIndexRead = request.readMainScopeIndex(languages.keySet(), mainIndexDescriptions, log);
+			MainScopeIndex mainScopeIndex = request.mainIndexSourceRoots != null ? new MainScopeIndex() : null;
+			injector = createBuilderInjector(classLoader, mainIndexRead ? mainIndexDescriptions : null,
+					mainScopeIndex);
+			MavenStandaloneBuilder builder = injector.getInstance(MavenStandaloneBuilder.class);
+			request.configure(builder);
+			builder.setLanguages(languages);
+			builder.setClassPathLookUpFilter(request.getClassPathLookupFilter(mainIndexRead));
+			if (request.clusteringConfig != null) {
+				builder.setClusteringConfig(request.clusteringConfig.convertToStandaloneConfig());
+			}
+			boolean success = builder.launch();
+			languageAccessFactory.flushFileWriters();
+			generatedFileStatistics.log(log);
+			if (mainScopeIndex != null && success) {
+				request.writeMainScopeIndex(mainScopeIndex, log);
+			}
+			return success;
+		} finally {
+			languageAccessFactory.release();
+			if (injector != null) {
+				injectorCache.release(injector);
+			}
+			log4JConfigurator.releaseLog4j();
+		}
+	}
+
+	private Injector createBuilderInjector(ClassLoader classLoader,
+			PrecomputedResourceDescriptions precomputedDescriptions, MainScopeIndex mainScopeIndex) {
+		if (precomputedDescriptions == null && mainScopeIndex == null) {
+			return injectorCache.acquire(MavenStandaloneBuilderModule.class.getName(), classLoader,
+					() -> Guice.createInjector(new MavenStandaloneBuilderModule()));
+		}
+		return Guice.createInjector(Modules.override(new MavenStandaloneBuilderModule()).with((Module) binder -> {
+			if (precomputedDescriptions != null) {
+				binder.bind(PrecomputedResourceDescriptions.class).toInstance(precomputedDescriptions);
+			}
+			if (mainScopeIndex != null) {
+				binder.bind(MainScopeIndex.class).toInstance(mainScopeIndex);
+			}
+			binder.bind(XtextResourceSet.class).to(MavenBuilderResourceSet.class);
+		}));
+	}
+
+	static String getStackTrace(Throwable throwable) {
+		StringWriter result = new StringWriter();
+		throwable.printStackTrace(new PrintWriter(result));
+		return result.toString();
+	}
+
+}
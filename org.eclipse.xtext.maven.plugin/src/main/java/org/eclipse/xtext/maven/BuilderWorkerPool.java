@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Starts and reuses the {@link BuilderWorker} processes of the generator
+ * mojos. Idle workers are kept per command line, so all modules and goals of
+ * a build with the same plugin dependencies and JVM arguments share them, and
+ * parallel builds start as many workers as they run builds at the same time.
+ * <p>
+ * A build is only run again in a new worker if the worker couldn't be reached,
+ * i.e. before it received the request. A build that was started isn't
+ * repeated, as it may have written some of its files already. A worker that
+ * exits after its build, e.g. because it ran out of memory, is removed from the
+ * pool. The workers are stopped when the Maven JVM exits.
+ *
+ * @since 2.31
+ */
+public class BuilderWorkerPool {
+
+	private static final Map<List<String>, Deque<Worker>> idleWorkers = new HashMap<>();
+
+	private static final List<Worker> workers = new ArrayList<>();
+
+	private static final SecureRandom random = new SecureRandom();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(BuilderWorkerPool::stopAll, "xtext-builder-worker-shutdown"));
+	}
+
+	/**
+	 * Thrown if the worker closed the connection before it received the request.
+	 */
+	private static class WorkerUnreachableException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		WorkerUnreachableException(IOException cause) {
+			super(cause);
+		}
+	}
+
+	private static class Worker {
+
+		private final Process process;
+
+		private final int port;
+
+		private final String secret;
+
+		Worker(Process process, int port, String secret) {
+			this.process = process;
+			this.port = port;
+			this.secret = secret;
+		}
+
+		BuilderWorker.Result build(WorkerBuildRequest request, Log log) throws IOException {
+			Socket socket;
+			try {
+				socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			} catch (IOException e) {
+				throw new WorkerUnreachableException(e);
+			}
+			try (socket) {
+				try {
+					DataOutputStream handshake = new DataOutputStream(socket.getOutputStream());
+					handshake.writeUTF(secret);
+					handshake.flush();
+					ObjectOutputStream out = new ObjectOutputStream(
+							new BufferedOutputStream(socket.getOutputStream()));
+					out.writeObject(request);
+					out.flush();
+				} catch (IOException e) {
+					throw new WorkerUnreachableException(e);
+				}
+				ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+				in.setObjectInputFilter(BuilderWorker.RESPONSE_FILTER);
+				while (true) {
+					Object message = in.readObject();
+					if (message instanceof BuilderWorker.Result) {
+						return (BuilderWorker.Result) message;
+					}
+					((BuilderWorker.LogEvent) message).log(log);
+				}
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+		}
+
+		void stop() {
+			process.destroy();
+		}
+
+		/**
+		 * @return the exit code of the worker, if it exited
+		 */
+		String describeExit() {
+			try {
+				if (process.waitFor(1, TimeUnit.SECONDS)) {
+					return " with exit code " + process.exitValue();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "";
+		}
+	}
+
+	/**
+	 * @param jvmArgs           the arguments of the worker JVM
+	 * @param pluginClassLoader the class loader of the plugin, whose class path
+	 *                          contains the language setups
+	 * @return the command line that starts a worker
+	 */
+	public static List<String> createCommand(List<String> jvmArgs, ClassLoader pluginClassLoader) throws IOException {
+		Set<String> classpath = new LinkedHashSet<>();
+		if (pluginClassLoader instanceof URLClassLoader) {
+			for (URL url : ((URLClassLoader) pluginClassLoader).getURLs()) {
+				classpath.add(toPath(url));
+			}
+		}
+		// the Maven API isn't part of the plugin's class path
+		CodeSource mavenApi = Log.class.getProtectionDomain().getCodeSource();
+		if (mavenApi != null && mavenApi.getLocation() != null) {
+			classpath.add(toPath(mavenApi.getLocation()));
+		}
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(jvmArgs);
+		command.add("-cp");
+		command.add(String.join(File.pathSeparator, classpath));
+		command.add(BuilderWorker.class.getName());
+		return command;
+	}
+
+	private static String toPath(URL url) throws IOException {
+		try {
+			return Paths.get(url.toURI()).toString();
+		} catch (URISyntaxException e) {
+			throw new IOException("Unsupported class path entry " + url, e);
+		}
+	}
+
+	/**
+	 * Runs the build in an idle worker started with the given command or in a
+	 * new one. If the worker can't be reached, the build is sent once more to a
+	 * new worker.
+	 */
+	public static BuilderWorker.Result build(List<String> command, WorkerBuildRequest request, Log log)
+			throws IOException {
+		for (int attempt = 1;; attempt++) {
+			Worker worker = acquire(command, log);
+			BuilderWorker.Result result;
+			try {
+				result = worker.build(request, log);
+			} catch (WorkerUnreachableException e) {
+				stop(worker);
+				if (attempt > 1) {
+					throw new IOException("Couldn't reach a new builder worker.", e.getCause());
+				}
+				log.warn("Couldn't reach the builder worker (" + e.getCause() + "), starting a new one.");
+				continue;
+			} catch (IOException e) {
+				String exit = worker.describeExit();
+				stop(worker);
+				throw new IOException("The builder worker died during the build" + exit + ".", e);
+			}
+			if (result.isWorkerExiting()) {
+				stop(worker);
+			} else {
+				release(command, worker);
+			}
+			return result;
+		}
+	}
+
+	private static Worker acquire(List<String> command, Log log) throws IOException {
+		synchronized (idleWorkers) {
+			Deque<Worker> idle = idleWorkers.get(command);
+			while (idle != null && !idle.isEmpty()) {
+				Worker worker = idle.pop();
+				if (worker.process.isAlive()) {
+					return worker;
+				}
+				workers.remove(worker);
+			}
+		}
+		long start = System.currentTimeMillis();
+		ProcessBuilder processBuilder = new ProcessBuilder(command);
+		processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		Process process = processBuilder.start();
+		byte[] secretBytes = new byte[32];
+		random.nextBytes(secretBytes);
+		String secret = Base64.getEncoder().encodeToString(secretBytes);
+		// the pipe stays open, the worker exits when it is closed
+		OutputStream input = process.getOutputStream();
+		input.write((secret + "\n").getBytes(StandardCharsets.UTF_8));
+		input.flush();
+		BufferedReader output = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		for (String line = output.readLine(); line != null; line = output.readLine()) {
+			if (line.startsWith(BuilderWorker.PORT_PREFIX)) {
+				Worker worker = new Worker(process,
+						Integer.parseInt(line.substring(BuilderWorker.PORT_PREFIX.length())), secret);
+				synchronized (idleWorkers) {
+					workers.add(worker);
+				}
+				log.info("Started the builder worker (pid " + process.pid() + ") in "
+						+ (System.currentTimeMillis() - start) + "ms.");
+				return worker;
+			}
+		}
+		process.destroy();
+		throw new IOException("The builder worker exited before it was ready.");
+	}
+
+	private static void release(List<String> command, Worker worker) {
+		synchronized (idleWorkers) {
+			if (worker.process.isAlive()) {
+				idleWorkers.computeIfAbsent(command, c -> new ArrayDeque<>()).push(worker);
+			} else {
+				workers.remove(worker);
+			}
+		}
+	}
+
+	private static void stop(Worker worker) {
+		worker.stop();
+		synchronized (idleWorkers) {
+			workers.remove(worker);
+		}
+	}
+
+	private static void stopAll() {
+		synchronized (idleWorkers) {
+			for (Worker worker : workers) {
+				worker.stop();
+			}
+			workers.clear();
+			idleWorkers.clear();
+		}
+	}
+
+}
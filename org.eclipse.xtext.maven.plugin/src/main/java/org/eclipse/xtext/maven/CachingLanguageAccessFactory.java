@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.xtext.ISetup;
+import org.eclipse.xtext.builder.standalone.ILanguageConfiguration;
+import org.eclipse.xtext.builder.standalone.LanguageAccess;
+import org.eclipse.xtext.builder.standalone.LanguageAccessFactory;
+import org.eclipse.xtext.generator.IOutputConfigurationProvider;
+import org.eclipse.xtext.generator.OutputConfiguration;
+import org.eclipse.xtext.parser.IEncodingProvider;
+import org.eclipse.xtext.resource.FileExtensionProvider;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+
+import com.google.inject.Injector;
+
+/**
+ * Replacement for the {@link LanguageAccessFactory} that takes the language
+ * injectors from an {@link InjectorCache}. The {@link LanguageAccess} instances are created per
+ * execution, as they carry the output configurations of the module.
+ * 
+ * @since 2.31
+ */
+public class CachingLanguageAccessFactory {
+
+	private final InjectorCache injectorCache;
+
+	private final List<Injector> acquiredInjectors = new ArrayList<>();
+
+	private BuildReport buildReport;
+
+	private GeneratedFileStatistics generatedFileStatistics;
+
+	private boolean writeChangedFilesOnly = true;
+
+	private final List<AsyncFileWriter> fileWriters = new ArrayList<>();
+
+	private LanguageFileExtensionIndex fileExtensionIndex;
+
+	private final Map<String, Long> creationTimes = new HashMap<>();
+
+	public CachingLanguageAccessFactory(InjectorCache injectorCache) {
+		this.injectorCache = injectorCache;
+	}
+
+	/**
+	 * @param buildReport records the injector creation and the writing of the
+	 *                    generated files per language, may be
+	 *                    <code>null</code>
+	 */
+	public void setBuildReport(BuildReport buildReport) {
+		this.buildReport = buildReport;
+	}
+
+	/**
+	 * @param generatedFileStatistics if not <code>null</code>, the created
+	 *                                language accesses count the generated
+	 *                                files and write them asynchronously for
+	 *                                output configurations with writer threads
+	 */
+	public void setGeneratedFileStatistics(GeneratedFileStatistics generatedFileStatistics) {
+		this.generatedFileStatistics = generatedFileStatistics;
+	}
+
+	/**
+	 * @param writeChangedFilesOnly whether generated files with unchanged content
+	 *                              are left untouched
+	 */
+	public void setWriteChangedFilesOnly(boolean writeChangedFilesOnly) {
+		this.writeChangedFilesOnly = writeChangedFilesOnly;
+	}
+
+	/**
+	 * @param fileExtensionIndex records the file extensions and the injector
+	 *                           creation time of the languages, may be
+	 *                           <code>null</code>
+	 */
+	public void setFileExtensionIndex(LanguageFileExtensionIndex fileExtensionIndex) {
+		this.fileExtensionIndex = fileExtensionIndex;
+	}
+
+	public Map<String, LanguageAccess> createLanguageAccess(List<? extends ILanguageConfiguration> languages,
+			ClassLoader classLoader) {
+		Map<String, LanguageAccess> result = new HashMap<>();
+		for (ILanguageConfiguration language : languages) {
+			Injector injector;
+			if (buildReport != null) {
+				try (BuildReport.Phase phase = buildReport.start("language injector", language.getSetup())) {
+					injector = getInjector(language.getSetup(), classLoader);
+				}
+			} else {
+				injector = getInjector(language.getSetup(), classLoader);
+			}
+			IResourceServiceProvider resourceServiceProvider = injector.getInstance(IResourceServiceProvider.class);
+			FileExtensionProvider fileExtensionProvider = injector.getInstance(FileExtensionProvider.class);
+			if (fileExtensionIndex != null) {
+				Long creationTime = creationTimes.get(language.getSetup());
+				fileExtensionIndex.record(language.getSetup(), classLoader, fileExtensionProvider.getFileExtensions(),
+						creationTime != null ? creationTime : 0);
+			}
+			LanguageAccess languageAccess = generatedFileStatistics != null
+					? new MavenLanguageAccess(getOutputConfigurations(language, injector), resourceServiceProvider,
+							language.isJavaSupport(), injector, generatedFileStatistics, writeChangedFilesOnly,
+							createFileWriters(language), buildReport, language.getSetup())
+					: new LanguageAccess(getOutputConfigurations(language, injector), resourceServiceProvider,
+							language.isJavaSupport());
+			for (String fileExtension : fileExtensionProvider.getFileExtensions()) {
+				result.put(fileExtension, languageAccess);
+			}
+		}
+		return result;
+	}
+
+	private Map<String, AsyncFileWriter> createFileWriters(ILanguageConfiguration language) {
+		Map<String, AsyncFileWriter> result = new HashMap<>();
+		if (language instanceof Language && ((Language) language).getConfiguredOutputConfigurations() != null) {
+			for (org.eclipse.xtext.maven.OutputConfiguration configuration : ((Language) language)
+					.getConfiguredOutputConfigurations()) {
+				if (configuration.getWriterThreads() > 0) {
+					AsyncFileWriter fileWriter = new AsyncFileWriter(configuration.getWriterThreads(),
+							configuration.getWriterQueueSize());
+					fileWriters.add(fileWriter);
+					result.put(configuration.getName(), fileWriter);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Waits until the asynchronous writers have written all generated files.
+	 * 
+	 * @throws IOException the first error that occurred while writing
+	 */
+	public void flushFileWriters() throws IOException {
+		for (AsyncFileWriter fileWriter : fileWriters) {
+			fileWriter.flush();
+		}
+	}
+
+	/**
+	 * @return the injector of the given language setup, leased from the cache
+	 *         until {@link #release()} is called.
+	 */
+	public Injector getInjector(String setupName, ClassLoader classLoader) {
+		Injector injector = injectorCache.acquire(setupName, classLoader, () -> createInjector(setupName, classLoader));
+		acquiredInjectors.add(injector);
+		return injector;
+	}
+
+	/**
+	 * Stops the asynchronous writers, resets the per-build state of the acquired
+	 * language injectors and hands them back to the cache.
+	 */
+	public void release() {
+		for (AsyncFileWriter fileWriter : fileWriters) {
+			fileWriter.close();
+		}
+		fileWriters.clear();
+		for (Injector injector : acquiredInjectors) {
+			IEncodingProvider encodingProvider = injector.getInstance(IEncodingProvider.class);
+			if (encodingProvider instanceof IEncodingProvider.Runtime) {
+				((IEncodingProvider.Runtime) encodingProvider).setDefaultEncoding(null);
+			}
+			injectorCache.release(injector);
+		}
+		acquiredInjectors.clear();
+	}
+
+	protected Set<OutputConfiguration> getOutputConfigurations(ILanguageConfiguration language, Injector injector) {
+		Set<OutputConfiguration> outputConfigurations = language.getOutputConfigurations();
+		if (outputConfigurations == null || outputConfigurations.isEmpty()) {
+			return injector.getInstance(IOutputConfigurationProvider.class).getOutputConfigurations();
+		}
+		return outputConfigurations;
+	}
+
+	protected Injector createInjector(String setupName, ClassLoader classLoader) {
+		try {
+			Class<?> setupClass = classLoader.loadClass(setupName);
+			if (!ISetup.class.isAssignableFrom(setupClass)) {
+				throw new IllegalArgumentException("'" + setupName + "' is not an " + ISetup.class.getName());
+			}
+			ISetup setup = (ISetup) setupClass.getDeclaredConstructor().newInstance();
+			AbstractXtextMojo.emfRegistryLock.writeLock().lock();
+			try {
+				long start = System.currentTimeMillis();
+				Injector injector = setup.createInjectorAndDoEMFRegistration();
+				creationTimes.put(setupName, System.currentTimeMillis() - start);
+				return injector;
+			} finally {
+				AbstractXtextMojo.emfRegistryLock.writeLock().unlock();
+			}
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Couldn't instantiate language setup '" + setupName + "'.", e);
+		}
+	}
+
+}
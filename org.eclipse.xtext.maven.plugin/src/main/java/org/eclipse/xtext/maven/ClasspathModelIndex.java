@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.xtext.util.Strings;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+/**
+ * A persistent index of the file extensions contained in the jars of a class
+ * path, keyed by the jar's path, size and modification time. It lets the
+ * builder skip jars that cannot contain model files without opening them.
+ * <p>
+ * One instance per index file is shared by all executions in the JVM. Changes
+ * are written back by {@link #save()}, which merges them with the entries
+ * other JVMs wrote in the meantime and drops the entries of jars that no
+ * longer exist, like deleted SNAPSHOT versions.
+ * 
+ * @since 2.31
+ */
+public class ClasspathModelIndex {
+
+	private static final Map<File, ClasspathModelIndex> instances = new HashMap<>();
+
+	/**
+	 * @return the index stored in the given file, loaded once per JVM.
+	 */
+	public static ClasspathModelIndex get(File indexFile) throws IOException {
+		synchronized (instances) {
+			ClasspathModelIndex index = instances.get(indexFile.getAbsoluteFile());
+			if (index == null) {
+				index = new ClasspathModelIndex(indexFile.getAbsoluteFile());
+				index.load();
+				instances.put(index.file, index);
+			}
+			return index;
+		}
+	}
+
+	private static class Entry {
+		long size;
+		long lastModified;
+		Set<String> fileExtensions;
+	}
+
+	private final File file;
+
+	private final SharedPropertiesFile storage;
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private final Set<String> changedKeys = new HashSet<>();
+
+	private int scannedJars;
+
+	protected ClasspathModelIndex(File file) {
+		this.file = file;
+		this.storage = new SharedPropertiesFile(file, "Xtext class path model index");
+	}
+
+	/**
+	 * @param jar a jar on the class path
+	 * @return the extensions of all files contained in the jar. The jar is only
+	 *         opened if it is unknown or changed since it was indexed.
+	 */
+	public synchronized Set<String> getFileExtensions(File jar) throws IOException {
+		String key = jar.getAbsolutePath();
+		Entry entry = entries.get(key);
+		if (entry != null && entry.size == jar.length() && entry.lastModified == jar.lastModified()) {
+			return entry.fileExtensions;
+		}
+		entry = new Entry();
+		entry.size = jar.length();
+		entry.lastModified = jar.lastModified();
+		entry.fileExtensions = scan(jar);
+		entries.put(key, entry);
+		changedKeys.add(key);
+		scannedJars++;
+		return entry.fileExtensions;
+	}
+
+	/**
+	 * @return the number of jars that had to be opened since the index was loaded
+	 */
+	public synchronized int getScannedJars() {
+		return scannedJars;
+	}
+
+	protected Set<String> scan(File jar) throws IOException {
+		Set<String> fileExtensions = new TreeSet<>();
+		try (ZipFile zipFile = new ZipFile(jar)) {
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry zipEntry = zipEntries.nextElement();
+				if (!zipEntry.isDirectory()) {
+					String name = zipEntry.getName();
+					int dot = name.lastIndexOf('.');
+					if (dot > name.lastIndexOf('/')) {
+						fileExtensions.add(name.substring(dot + 1));
+					}
+				}
+			}
+		}
+		return Collections.unmodifiableSet(fileExtensions);
+	}
+
+	protected void load() throws IOException {
+		Properties properties = storage.load();
+		for (String key : properties.stringPropertyNames()) {
+			Entry entry = parse(properties.getProperty(key));
+			if (entry != null) {
+				entries.put(key, entry);
+			}
+		}
+	}
+
+	private Entry parse(String value) {
+		List<String> values = Splitter.on(';').limit(3).splitToList(value);
+		if (values.size() != 3) {
+			return null;
+		}
+		Entry entry = new Entry();
+		entry.size = Long.parseLong(values.get(0));
+		entry.lastModified = Long.parseLong(values.get(1));
+		entry.fileExtensions = Strings.isEmpty(values.get(2)) ? Collections.emptySet()
+				: Collections.unmodifiableSet(new TreeSet<>(Splitter.on(',').splitToList(values.get(2))));
+		return entry;
+	}
+
+	/**
+	 * Writes the changed entries to the index file and takes over the entries
+	 * written by other JVMs. Entries of jars that no longer exist are dropped.
+	 */
+	public synchronized void save() throws IOException {
+		if (changedKeys.isEmpty()) {
+			return;
+		}
+		storage.update(properties -> {
+			for (String key : changedKeys) {
+				Entry value = entries.get(key);
+				properties.setProperty(key,
+						value.size + ";" + value.lastModified + ";" + Joiner.on(',').join(value.fileExtensions));
+			}
+			for (String key : properties.stringPropertyNames()) {
+				if (!new File(key).isFile()) {
+					properties.remove(key);
+					entries.remove(key);
+				} else if (!changedKeys.contains(key)) {
+					Entry entry = parse(properties.getProperty(key));
+					if (entry != null) {
+						entries.put(key, entry);
+					}
+				}
+			}
+		});
+		changedKeys.clear();
+	}
+
+}
@@ -8,7 +8,11 @@
  *******************************************************************************/
 package org.eclipse.xtext.maven;
 
-public class ClusteringConfig {
+import java.io.Serializable;
+
+public class ClusteringConfig implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * We want at least 10MB free memory.
@@ -28,6 +32,39 @@ public class ClusteringConfig {
 	 */
 	private long minimumPercentFreeMemory = 15;
 
+	/**
+	 * Size the clusters from the memory each resource retains, measured after
+	 * each garbage collection of the build, so that a cluster doesn't exceed
+	 * <code>targetHeapPercent</code> of the heap. The clusters before the first
+	 * measurement are sized from the profile of the previous run, kept in the
+	 * <code>clusteringProfileDirectory</code>. The free memory thresholds above
+	 * still apply.
+	 * @property
+	 */
+	private boolean adaptive = false;
+
+	/**
+	 * Percentage of the maximum heap that the resources of one cluster may
+	 * retain in adaptive mode.
+	 * @property
+	 */
+	private int targetHeapPercent = 60;
+
+	/**
+	 * How the resources are grouped into clusters: <code>loadOrder</code> splits
+	 * them in the order the builder loads them, <code>dependencies</code> orders
+	 * them by the strongly connected groups recorded in the previous run and
+	 * keeps a group in one cluster unless the free memory drops below the
+	 * thresholds above. The recorded references are kept in the
+	 * <code>clusteringProfileDirectory</code>.
+	 * @property
+	 */
+	private String partitioning = PARTITIONING_LOAD_ORDER;
+
+	public static final String PARTITIONING_LOAD_ORDER = "loadOrder";
+
+	public static final String PARTITIONING_DEPENDENCIES = "dependencies";
+
 	public long getMinimumFreeMemory() {
 		return minimumFreeMemory;
 	}
@@ -39,6 +76,22 @@ public class ClusteringConfig {
 	public long getMinimumPercentFreeMemory() {
 		return minimumPercentFreeMemory;
 	}
+
+	public boolean isAdaptive() {
+		return adaptive;
+	}
+
+	public int getTargetHeapPercent() {
+		return targetHeapPercent;
+	}
+
+	public String getPartitioning() {
+		return partitioning;
+	}
+
+	public boolean isPartitionByDependencies() {
+		return PARTITIONING_DEPENDENCIES.equals(partitioning);
+	}
 	
 	public org.eclipse.xtext.builder.standalone.ClusteringConfig convertToStandaloneConfig(){
 		return new org.eclipse.xtext.builder.standalone.ClusteringConfig(minimumFreeMemory,minimumClusterSize, minimumPercentFreeMemory);
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
+
+/**
+ * The clustering policy of the standalone builder that keeps strongly
+ * connected resources in one cluster, based on the cross reference graph
+ * recorded in the previous run, and records the graph of the current run.
+ * <p>
+ * The {@link MavenStandaloneBuilder} orders the resources by their strongly
+ * connected groups, referenced groups first, so that the members of a group
+ * are processed one after the other. A cluster is only split between two
+ * groups if the next group doesn't fit into it anymore, judged by the cluster
+ * size of the {@link AdaptiveClustering} if given, or else by the memory the
+ * resources of the current cluster took so far. A cluster is split inside a
+ * group only if the free memory drops below the thresholds of the
+ * {@link ClusteringConfig}. Resources that are new since the previous run are
+ * processed last.
+ * <p>
+ * To report the reloads the grouping avoided, the policy compares the
+ * estimated reloads of the processed order with those of the load order, cut
+ * into clusters of the same sizes, both on the cross references of the current
+ * run.
+ *
+ * @since 2.31
+ */
+public class DependencyClustering implements IResourceClusteringPolicy {
+
+	private static final int UNKNOWN = -1;
+
+	private final ClusteringConfig config;
+
+	private final AdaptiveClustering adaptiveClustering;
+
+	private final File graphFile;
+
+	private final ResourceLoadCounter loadCounter;
+
+	private final Log log;
+
+	private final ResourceDependencyGraph currentGraph = new ResourceDependencyGraph();
+
+	private final Map<String, Integer> components = new HashMap<>();
+
+	private final Map<Integer, Integer> componentSizes = new HashMap<>();
+
+	private int currentComponent = UNKNOWN;
+
+	private long clusterStartMemory;
+
+	private int clusters = 1;
+
+	private int componentSplits;
+
+	private List<URI> loadOrder;
+
+	private List<URI> processingOrder;
+
+	private final List<Integer> clusterSizes = new ArrayList<>();
+
+	private int clusteredResources;
+
+	/**
+	 * @param adaptiveClustering sizes the clusters, may be <code>null</code>
+	 * @param graphFile          the file the graph is kept in between runs
+	 * @param loadCounter        counts the loads of the builder's resource set
+	 */
+	public DependencyClustering(ClusteringConfig config, AdaptiveClustering adaptiveClustering, File graphFile,
+			ResourceLoadCounter loadCounter, Log log) {
+		this.config = config;
+		this.adaptiveClustering = adaptiveClustering;
+		this.graphFile = graphFile;
+		this.loadCounter = loadCounter;
+		this.log = log;
+	}
+
+	/**
+	 * @return the graph to be filled by the {@link MavenBuilderResourceSet}
+	 */
+	public ResourceDependencyGraph getCurrentGraph() {
+		return currentGraph;
+	}
+
+	/**
+	 * @param resources the resources in the order the builder found them
+	 * @return the resources ordered by the strongly connected groups of the
+	 *         previous run
+	 */
+	public List<URI> orderResources(List<URI> resources) {
+		loadOrder = resources;
+		processingOrder = resources;
+		ResourceDependencyGraph previousGraph;
+		try {
+			previousGraph = ResourceDependencyGraph.load(graphFile);
+		} catch (IOException e) {
+			log.warn("Dependency clustering: couldn't read " + graphFile, e);
+			previousGraph = null;
+		}
+		if (previousGraph == null) {
+			log.info("Dependency clustering: no cross references of a previous run, using the load order.");
+			return resources;
+		}
+		List<List<String>> groups = previousGraph.getStronglyConnectedComponents();
+		for (int i = 0; i < groups.size(); i++) {
+			for (String member : groups.get(i)) {
+				components.put(member, i);
+			}
+		}
+		int largestComponent = 0;
+		int knownResources = 0;
+		for (URI resource : resources) {
+			int component = getComponent(resource);
+			if (component != UNKNOWN) {
+				knownResources++;
+				largestComponent = Math.max(largestComponent, componentSizes.merge(component, 1, Integer::sum));
+			}
+		}
+		List<URI> result = new ArrayList<>(resources);
+		processingOrder = result;
+		// stable, so the members of a group and the new resources keep their order
+		result.sort(Comparator.comparingInt(resource -> {
+			int component = getComponent(resource);
+			return component != UNKNOWN ? component : Integer.MAX_VALUE;
+		}));
+		log.info("Dependency clustering: " + knownResources + " of " + resources.size() + " resource(s) in "
+				+ componentSizes.size() + " strongly connected group(s) of the previous run, the largest has "
+				+ largestComponent + " resource(s).");
+		return result;
+	}
+
+	/**
+	 * @param alreadyProcessed the number of resources loaded since the resource
+	 *                         set was cleared the last time
+	 */
+	@Override
+	public boolean continueProcessing(ResourceSet resourceSet, URI next, int alreadyProcessed) {
+		int component = getComponent(next);
+		boolean newComponent = component == UNKNOWN || component != currentComponent;
+		currentComponent = component;
+		int nextResources = newComponent && component != UNKNOWN ? componentSizes.get(component) : 1;
+		boolean result;
+		if (adaptiveClustering != null) {
+			result = adaptiveClustering.continueProcessing(alreadyProcessed, nextResources);
+		} else if (alreadyProcessed == 0) {
+			clusterStartMemory = getUsedMemory();
+			result = true;
+		} else if (alreadyProcessed < config.getMinimumClusterSize()) {
+			result = true;
+		} else {
+			long requiredMemory = newComponent
+					? Math.max(getUsedMemory() - clusterStartMemory, 0) / alreadyProcessed * nextResources
+					: 0;
+			result = !AdaptiveClustering.isFreeMemoryLow(config, requiredMemory);
+		}
+		if (!result) {
+			clusters++;
+			// the sizes of the clusters of the first pass over the resources
+			if (processingOrder != null && clusteredResources < processingOrder.size()) {
+				clusterSizes.add(alreadyProcessed);
+				clusteredResources += alreadyProcessed;
+			}
+			if (!newComponent) {
+				componentSplits++;
+			}
+			clusterStartMemory = getUsedMemory();
+		}
+		return result;
+	}
+
+	/**
+	 * Reports the clusters and reloads of the current run, and the reloads avoided
+	 * compared to processing the same clusters in load order, and stores the graph
+	 * for the next run.
+	 */
+	public void finish() {
+		log.info("Dependency clustering: " + clusters + " cluster(s), " + componentSplits
+				+ " split(s) inside a strongly connected group, " + loadCounter.getReloads()
+				+ " resource reload(s) in this run.");
+		if (processingOrder != null) {
+			List<Integer> sizes = new ArrayList<>(clusterSizes);
+			if (clusteredResources < processingOrder.size()) {
+				sizes.add(processingOrder.size() - clusteredResources);
+			}
+			int baseline = currentGraph.estimateReloads(split(loadOrder, sizes));
+			int actual = currentGraph.estimateReloads(split(processingOrder, sizes));
+			log.info("Dependency clustering: " + baseline + " estimated reload(s) in load order, " + actual
+					+ " in the processed order, " + (baseline - actual) + " reload(s) avoided.");
+		}
+		try {
+			currentGraph.store(graphFile);
+		} catch (IOException e) {
+			log.warn("Dependency clustering: couldn't write " + graphFile, e);
+		}
+	}
+
+	private static List<List<String>> split(List<URI> resources, List<Integer> sizes) {
+		List<List<String>> result = new ArrayList<>();
+		int start = 0;
+		for (int size : sizes) {
+			int end = Math.min(start + size, resources.size());
+			List<String> cluster = new ArrayList<>();
+			for (URI resource : resources.subList(start, end)) {
+				cluster.add(resource.toString());
+			}
+			result.add(cluster);
+			start = end;
+		}
+		return result;
+	}
+
+	private int getComponent(URI resource) {
+		return resource != null ? components.getOrDefault(resource.toString(), UNKNOWN) : UNKNOWN;
+	}
+
+	private static long getUsedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
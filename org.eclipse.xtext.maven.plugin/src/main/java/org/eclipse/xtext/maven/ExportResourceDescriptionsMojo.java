@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.builder.standalone.LanguageAccess;
+import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProviderFactory;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.XtextResourceSet;
+
+import com.google.common.collect.Iterables;
+import com.google.common.io.Files;
+
+/**
+ * Writes the exported objects of all models in the source roots to
+ * {@link PrecomputedResourceDescriptions#LOCATION} in the output directory, so
+ * that they are packaged with the artifact. Downstream modules that enable
+ * <code>usePrecomputedResourceDescriptions</code> read them instead of loading
+ * and indexing the models.
+ * 
+ * @since 2.31
+ */
+@Mojo(name = "export-resource-descriptions", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class ExportResourceDescriptionsMojo extends AbstractXtextMojo {
+
+	/**
+	 * Project source roots. List of folders, where the source models are
+	 * located. The models are expected to be packaged with the same path
+	 * relative to the artifact's root.
+	 */
+	@Parameter(defaultValue = "${project.compileSourceRoots}", required = true)
+	private List<String> sourceRoots;
+
+	/**
+	 * Project classpath.
+	 */
+	@Parameter(defaultValue = "${project.compileClasspathElements}", readonly = true, required = true)
+	private List<String> classpathElements;
+
+	/**
+	 * The file the resource descriptions are written to.
+	 */
+	@Parameter(defaultValue = "${project.build.outputDirectory}/" + PrecomputedResourceDescriptions.LOCATION)
+	private File outputFile;
+
+	@Parameter(property = "xtext.generator.skip", defaultValue = "false")
+	private Boolean skip;
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		if (skip) {
+			getLog().info("skipped.");
+			return;
+		}
+		MavenLog4JConfigurator log4JConfigurator = new MavenLog4JConfigurator();
+		log4JConfigurator.configureLog4j(getLog());
+		ClassLoader classLoader = getClass().getClassLoader();
+		CachingLanguageAccessFactory languageAccessFactory = new CachingLanguageAccessFactory(getInjectorCache());
+		try (URLClassLoader projectClassLoader = new URLClassLoader(getClasspathURLs(), classLoader)) {
+			Map<String, LanguageAccess> languages = languageAccessFactory.createLanguageAccess(getLanguages(),
+					classLoader);
+			Map<String, IResourceDescription> descriptions = new TreeMap<>();
+			int exportedObjects = 0;
+			XtextResourceSet resourceSet = createResourceSet(languages, projectClassLoader);
+			for (String sourceRoot : sourceRoots) {
+				Path root = resolveFilePath(sourceRoot).toPath();
+				for (Path model : findModels(root, languages)) {
+					LanguageAccess language = languages.get(Files.getFileExtension(model.toString()));
+					Resource resource = resourceSet.getResource(URI.createFileURI(model.toAbsolutePath().toString()),
+							true);
+					IResourceDescription description = language.getResourceServiceProvider()
+							.getResourceDescriptionManager().getResourceDescription(resource);
+					descriptions.put(root.relativize(model).toString().replace(File.separatorChar, '/'), description);
+					exportedObjects += Iterables.size(description.getExportedObjects());
+				}
+			}
+			outputFile.getParentFile().mkdirs();
+			try (OutputStream out = java.nio.file.Files.newOutputStream(outputFile.toPath())) {
+				PrecomputedResourceDescriptions.write(descriptions, out);
+			}
+			getLog().info("Exported " + exportedObjects + " object(s) of " + descriptions.size() + " model(s) to "
+					+ outputFile);
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to export resource descriptions to " + outputFile, e);
+		} finally {
+			languageAccessFactory.release();
+			log4JConfigurator.releaseLog4j();
+		}
+	}
+
+	/**
+	 * Creates the resource set with the bindings of the languages and, if one of
+	 * them supports Java, the type provider for the project's class path, as the
+	 * standalone builder does.
+	 */
+	private XtextResourceSet createResourceSet(Map<String, LanguageAccess> languages, ClassLoader projectClassLoader) {
+		XtextResourceSet resourceSet = languages.isEmpty() ? new XtextResourceSet()
+				: languages.values().iterator().next().getResourceServiceProvider().get(XtextResourceSet.class);
+		MavenBuilderResourceSet.copyGlobalRegistries(resourceSet);
+		resourceSet.setClasspathURIContext(projectClassLoader);
+		for (Language language : getLanguages()) {
+			if (language.isJavaSupport()) {
+				new ClasspathTypeProviderFactory(projectClassLoader, null).createTypeProvider(resourceSet);
+				break;
+			}
+		}
+		return resourceSet;
+	}
+
+	private List<Path> findModels(Path root, Map<String, LanguageAccess> languages) throws IOException {
+		if (!java.nio.file.Files.isDirectory(root)) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> walker = java.nio.file.Files.walk(root)) {
+			return walker.filter(java.nio.file.Files::isRegularFile)
+					.filter(path -> languages.containsKey(Files.getFileExtension(path.toString())))
+					.sorted().collect(Collectors.toList());
+		}
+	}
+
+	private URL[] getClasspathURLs() throws MalformedURLException {
+		List<URL> urls = new ArrayList<>();
+		for (String classpathElement : classpathElements) {
+			urls.add(new File(classpathElement).toURI().toURL());
+		}
+		return urls.toArray(new URL[urls.size()]);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Counts the files written, left unchanged and deleted per output
+ * configuration by the {@link MavenFileSystemAccess file system
+ * accesses} of an execution.
+ *
+ * @since 2.31
+ */
+public class GeneratedFileStatistics {
+
+	private static class Counts {
+		int written;
+		int unchanged;
+		int deleted;
+	}
+
+	private final Map<String, Counts> counts = new TreeMap<>();
+
+	public synchronized void written(String outputConfigName) {
+		get(outputConfigName).written++;
+	}
+
+	public synchronized void unchanged(String outputConfigName) {
+		get(outputConfigName).unchanged++;
+	}
+
+	public synchronized void deleted(String outputConfigName) {
+		get(outputConfigName).deleted++;
+	}
+
+	private Counts get(String outputConfigName) {
+		return counts.computeIfAbsent(outputConfigName, name -> new Counts());
+	}
+
+	/**
+	 * Logs one line per output configuration that had files generated or
+	 * deleted.
+	 */
+	public synchronized void log(Log log) {
+		for (Map.Entry<String, Counts> entry : counts.entrySet()) {
+			Counts value = entry.getValue();
+			log.info("Output '" + entry.getKey() + "': " + value.written + " file(s) written, " + value.unchanged
+					+ " unchanged, " + value.deleted + " deleted.");
+		}
+	}
+
+}
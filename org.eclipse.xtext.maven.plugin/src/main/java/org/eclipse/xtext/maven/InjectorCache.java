@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.eclipse.xtext.ISetup;
+
+import com.google.inject.Injector;
+
+/**
+ * Keeps the Guice injectors of language setups and of the standalone builder
+ * for the duration of a Maven session, so that the modules of a reactor and the
+ * generate and testGenerate goals don't repeat the expensive
+ * {@link ISetup#createInjectorAndDoEMFRegistration()}.
+ * <p>
+ * Injectors are leased exclusively: an execution {@link #acquire acquires} an
+ * idle injector (or creates a new one) and {@link #release releases} it when it
+ * is done. Executions running in parallel therefore never share the state held
+ * by the singletons of an injector.
+ * 
+ * @since 2.31
+ */
+public class InjectorCache {
+
+	private static InjectorCache sessionCache = new InjectorCache();
+
+	/**
+	 * @param session the current Maven session
+	 * @return the cache shared by all executions of the given session. A new
+	 *         session (e.g. in a long running Maven daemon) starts with an empty
+	 *         cache.
+	 */
+	public static synchronized InjectorCache forSession(Object session) {
+		if (sessionCache.session != session) {
+			sessionCache = new InjectorCache();
+			sessionCache.session = session;
+		}
+		return sessionCache;
+	}
+
+	private static class Key {
+		private final String name;
+		private final ClassLoader classLoader;
+
+		Key(String name, ClassLoader classLoader) {
+			this.name = name;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * name.hashCode() + System.identityHashCode(classLoader);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return name.equals(other.name) && classLoader == other.classLoader;
+		}
+	}
+
+	private Object session;
+
+	private final Map<Key, Deque<Injector>> idleInjectors = new HashMap<>();
+
+	private final Map<Injector, Key> keys = new IdentityHashMap<>();
+
+	private final Map<Injector, Long> creationTimes = new IdentityHashMap<>();
+
+	private int hits;
+
+	private int misses;
+
+	private long savedTime;
+
+	/**
+	 * Returns an idle injector created for the same name and class loader, or
+	 * creates a new one. The caller has to {@link #release(Injector)} it when done.
+	 * 
+	 * @param name        the name of the setup or module the injector is created
+	 *                    from
+	 * @param classLoader the class loader the setup or module was loaded with
+	 * @param factory     creates the injector on a cache miss
+	 * @return the injector, exclusively leased to the caller
+	 */
+	public Injector acquire(String name, ClassLoader classLoader, Supplier<Injector> factory) {
+		Key key = new Key(Objects.requireNonNull(name), classLoader);
+		synchronized (this) {
+			Deque<Injector> idle = idleInjectors.get(key);
+			if (idle != null && !idle.isEmpty()) {
+				Injector injector = idle.pop();
+				hits++;
+				savedTime += creationTimes.get(injector);
+				return injector;
+			}
+			misses++;
+		}
+		long start = System.currentTimeMillis();
+		Injector injector = factory.get();
+		long creationTime = System.currentTimeMillis() - start;
+		synchronized (this) {
+			keys.put(injector, key);
+			creationTimes.put(injector, creationTime);
+		}
+		return injector;
+	}
+
+	/**
+	 * Hands a leased injector back to the cache so that other executions can
+	 * reuse it.
+	 */
+	public synchronized void release(Injector injector) {
+		Key key = keys.get(injector);
+		if (key != null) {
+			idleInjectors.computeIfAbsent(key, k -> new ArrayDeque<>()).push(injector);
+		}
+	}
+
+	/**
+	 * @return a human readable summary of the cache hits and the injector
+	 *         creation time saved so far in this session.
+	 */
+	public synchronized String getStatistics() {
+		return hits + " hit(s), " + misses + " miss(es), saved " + savedTime + "ms of injector creation";
+	}
+
+}
@@ -8,6 +8,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.maven;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Set;
 
@@ -19,7 +20,9 @@ import com.google.common.collect.Sets;
  * @author Dennis Huebner - Initial contribution and API
  * 
  */
-public class Language implements ILanguageConfiguration {
+public class Language implements ILanguageConfiguration, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * whether this language links or produces Java types
@@ -38,6 +41,26 @@ public class Language implements ILanguageConfiguration {
 	 */
 	private List<OutputConfiguration> outputConfigurations;
 
+	/**
+	 * the file extensions of this language. Only needed to skip an unused
+	 * language before its setup was run once, afterwards they are known from the
+	 * language file extension index.
+	 * 
+	 * @property
+	 * @since 2.31
+	 */
+	private List<String> fileExtensions;
+
+	/**
+	 * the setups of the languages this language needs, e.g. because its models
+	 * reference models of them. They are never skipped when this language is
+	 * used.
+	 * 
+	 * @property
+	 * @since 2.31
+	 */
+	private List<String> requiredLanguages;
+
 	public String getSetup() {
 		return setup;
 	}
@@ -57,10 +80,47 @@ public class Language implements ILanguageConfiguration {
 		return set;
 	}
 
+	/**
+	 * @return the output configurations as configured in the pom, may be
+	 *         <code>null</code>
+	 * @since 2.31
+	 */
+	public List<OutputConfiguration> getConfiguredOutputConfigurations() {
+		return outputConfigurations;
+	}
+
 	public void setOutputConfigurations(List<OutputConfiguration> outputConfiguration) {
 		this.outputConfigurations = outputConfiguration;
 	}
 	
+	/**
+	 * @since 2.31
+	 */
+	public List<String> getFileExtensions() {
+		return fileExtensions;
+	}
+
+	/**
+	 * @since 2.31
+	 */
+	public void setFileExtensions(List<String> fileExtensions) {
+		this.fileExtensions = fileExtensions;
+	}
+
+	/**
+	 * @since 2.31
+	 */
+	public List<String> getRequiredLanguages() {
+		return requiredLanguages;
+	}
+
+	/**
+	 * @since 2.31
+	 */
+	public void setRequiredLanguages(List<String> requiredLanguages) {
+		this.requiredLanguages = requiredLanguages;
+	}
+
 	public void setJavaSupport(boolean javaSupport) {
 		this.javaSupport = javaSupport;
 	}
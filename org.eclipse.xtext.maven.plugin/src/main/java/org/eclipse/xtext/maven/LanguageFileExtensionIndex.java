@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.xtext.util.Strings;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+/**
+ * A persistent index of the file extensions and the injector creation time of
+ * language setups, keyed by the setup's name and the location, modification
+ * time and size of the jar it is loaded from. It lets the generator decide
+ * which languages are needed without creating their injectors. Setups loaded
+ * from a directory, like the <code>target/classes</code> of a reactor module,
+ * aren't indexed, as their content changes without a reliable stamp.
+ * <p>
+ * One instance per index file is shared by all executions in the JVM. Changes
+ * are written back by {@link #save()}, which merges them with the entries
+ * other JVMs wrote in the meantime and drops the entries of jars that no
+ * longer exist or changed since they were indexed.
+ *
+ * @since 2.31
+ */
+public class LanguageFileExtensionIndex {
+
+	private static final Map<File, LanguageFileExtensionIndex> instances = new HashMap<>();
+
+	/**
+	 * @return the index stored in the given file, loaded once per JVM.
+	 */
+	public static LanguageFileExtensionIndex get(File indexFile) throws IOException {
+		synchronized (instances) {
+			LanguageFileExtensionIndex index = instances.get(indexFile.getAbsoluteFile());
+			if (index == null) {
+				index = new LanguageFileExtensionIndex(indexFile.getAbsoluteFile());
+				index.load();
+				instances.put(index.file, index);
+			}
+			return index;
+		}
+	}
+
+	private static class Entry {
+		long creationTime;
+		Set<String> fileExtensions;
+	}
+
+	private final File file;
+
+	private final SharedPropertiesFile storage;
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private final Set<String> changedKeys = new HashSet<>();
+
+	protected LanguageFileExtensionIndex(File file) {
+		this.file = file;
+		this.storage = new SharedPropertiesFile(file, "Xtext language file extensions");
+	}
+
+	/**
+	 * @return the file extensions of the language setup, or <code>null</code> if
+	 *         the setup wasn't instantiated from the same location before.
+	 */
+	public synchronized Set<String> getFileExtensions(String setupName, ClassLoader classLoader) {
+		String key = getKey(setupName, classLoader);
+		Entry entry = key != null ? entries.get(key) : null;
+		return entry != null ? entry.fileExtensions : null;
+	}
+
+	/**
+	 * @return the time it took to create the injector of the setup, 0 if
+	 *         unknown.
+	 */
+	public synchronized long getCreationTime(String setupName, ClassLoader classLoader) {
+		String key = getKey(setupName, classLoader);
+		Entry entry = key != null ? entries.get(key) : null;
+		return entry != null ? entry.creationTime : 0;
+	}
+
+	public synchronized void record(String setupName, ClassLoader classLoader, Set<String> fileExtensions,
+			long creationTime) {
+		String key = getKey(setupName, classLoader);
+		if (key == null) {
+			return;
+		}
+		Entry entry = entries.get(key);
+		if (entry != null && entry.fileExtensions.equals(fileExtensions)
+				&& (creationTime <= 0 || entry.creationTime == creationTime)) {
+			return;
+		}
+		Entry newEntry = new Entry();
+		newEntry.fileExtensions = Collections.unmodifiableSet(new TreeSet<>(fileExtensions));
+		newEntry.creationTime = creationTime > 0 || entry == null ? creationTime : entry.creationTime;
+		entries.put(key, newEntry);
+		changedKeys.add(key);
+	}
+
+	/**
+	 * The location of the setup class and the modification time and size of the
+	 * jar are part of the key, so that a new version of a language, which may
+	 * register other file extensions, is indexed anew. This includes a rebuilt
+	 * SNAPSHOT jar at the same location.
+	 * 
+	 * @return the key, or <code>null</code> if the setup isn't loaded from a jar
+	 */
+	protected String getKey(String setupName, ClassLoader classLoader) {
+		try {
+			CodeSource codeSource = classLoader.loadClass(setupName).getProtectionDomain().getCodeSource();
+			if (codeSource == null || codeSource.getLocation() == null) {
+				return null;
+			}
+			File location = new File(codeSource.getLocation().toURI());
+			if (!location.isFile()) {
+				return null;
+			}
+			return setupName + "@" + codeSource.getLocation() + "@" + location.lastModified() + ":"
+					+ location.length();
+		} catch (ClassNotFoundException | SecurityException | URISyntaxException | IllegalArgumentException e) {
+			// not indexed, the language is used
+			return null;
+		}
+	}
+
+	/**
+	 * @return whether the jar in the key still exists with the modification time
+	 *         and size it had when the setup was indexed
+	 */
+	protected boolean isCurrent(String key) {
+		int locationStart = key.indexOf('@');
+		int stampStart = key.lastIndexOf('@');
+		if (locationStart < 0 || stampStart <= locationStart) {
+			return false;
+		}
+		try {
+			File location = new File(new URI(key.substring(locationStart + 1, stampStart)));
+			return location.isFile()
+					&& key.substring(stampStart + 1).equals(location.lastModified() + ":" + location.length());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	protected void load() throws IOException {
+		Properties properties = storage.load();
+		for (String key : properties.stringPropertyNames()) {
+			Entry entry = parse(properties.getProperty(key));
+			if (entry != null) {
+				entries.put(key, entry);
+			}
+		}
+	}
+
+	private Entry parse(String value) {
+		List<String> values = Splitter.on(';').limit(2).splitToList(value);
+		if (values.size() != 2) {
+			return null;
+		}
+		Entry entry = new Entry();
+		entry.creationTime = Long.parseLong(values.get(0));
+		entry.fileExtensions = Strings.isEmpty(values.get(1)) ? Collections.emptySet()
+				: Collections.unmodifiableSet(new TreeSet<>(Splitter.on(',').splitToList(values.get(1))));
+		return entry;
+	}
+
+	/**
+	 * Writes the changed entries to the index file and takes over the entries
+	 * written by other JVMs. Entries of jars that no longer exist or changed are
+	 * dropped.
+	 */
+	public synchronized void save() throws IOException {
+		if (changedKeys.isEmpty()) {
+			return;
+		}
+		storage.update(properties -> {
+			for (String key : changedKeys) {
+				Entry value = entries.get(key);
+				properties.setProperty(key, value.creationTime + ";" + Joiner.on(',').join(value.fileExtensions));
+			}
+			for (String key : properties.stringPropertyNames()) {
+				if (!isCurrent(key)) {
+					properties.remove(key);
+					entries.remove(key);
+				} else if (!changedKeys.contains(key)) {
+					Entry entry = parse(properties.getProperty(key));
+					if (entry != null) {
+						entries.put(key, entry);
+					}
+				}
+			}
+		});
+		changedKeys.clear();
+	}
+
+}
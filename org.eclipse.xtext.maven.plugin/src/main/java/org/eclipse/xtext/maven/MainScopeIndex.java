@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * The index of the source models built by the generate goal, written to its
+ * temporary directory so that testGenerate can use it instead of loading and
+ * indexing the same models again from the main output directory.
+ * <p>
+ * The resource descriptions are stored in the format of the
+ * {@link PrecomputedResourceDescriptions}, by the path of the model relative
+ * to its source root, together with a hash of each model. The index is only
+ * used if all models in the output directory are described by it and still
+ * match these hashes. A model that exports objects of a model outside of its
+ * source root isn't described, as the URIs of these objects can't be rebased
+ * to the output directory; its missing hash makes the index stale.
+ *
+ * @since 2.31
+ */
+public class MainScopeIndex {
+
+	private static final String DESCRIPTIONS_FILE = "main-index.bin";
+
+	private static final String HASHES_FILE = "main-index.properties";
+
+	private ResourceDescriptionsData index;
+
+	/**
+	 * Called by the {@link MavenBuilderResourceSet} when the builder installs its
+	 * index.
+	 */
+	public void setIndex(ResourceDescriptionsData index) {
+		this.index = index;
+	}
+
+	/**
+	 * Writes the descriptions of the models in the given source roots.
+	 *
+	 * @return the number of models written, -1 if the builder didn't install an
+	 *         index
+	 */
+	public int write(File directory, List<File> sourceRoots) throws IOException {
+		File hashesFile = new File(directory, HASHES_FILE);
+		java.nio.file.Files.deleteIfExists(hashesFile.toPath());
+		if (index == null) {
+			return -1;
+		}
+		Map<String, IResourceDescription> descriptions = new TreeMap<>();
+		Properties hashes = new Properties();
+		for (IResourceDescription description : index.getAllResourceDescriptions()) {
+			URI uri = description.getURI();
+			if (!uri.isFile()) {
+				continue;
+			}
+			File model = new File(uri.toFileString());
+			Path sourceRoot = getSourceRoot(model, sourceRoots);
+			if (sourceRoot != null && model.isFile() && isRelocatable(description, sourceRoot)) {
+				String relativePath = sourceRoot.relativize(model.getAbsoluteFile().toPath().normalize()).toString()
+						.replace(File.separatorChar, '/');
+				descriptions.put(relativePath, description);
+				hashes.setProperty(relativePath, hash(model));
+			}
+		}
+		directory.mkdirs();
+		try (OutputStream out = java.nio.file.Files.newOutputStream(new File(directory, DESCRIPTIONS_FILE).toPath())) {
+			PrecomputedResourceDescriptions.write(descriptions, out);
+		}
+		try (OutputStream out = java.nio.file.Files.newOutputStream(hashesFile.toPath())) {
+			hashes.store(out, "Xtext main scope index");
+		}
+		return descriptions.size();
+	}
+
+	/**
+	 * Adds the descriptions written by {@link #write} of the models that are
+	 * copied to the output directory to the given descriptions, if none of these
+	 * models changed and the output directory contains no other models.
+	 *
+	 * @param fileExtensions the file extensions of the models
+	 * @return the number of models added, -1 if there is no index or it is stale
+	 */
+	public static int read(File directory, File outputDirectory, Set<String> fileExtensions,
+			PrecomputedResourceDescriptions descriptions, EPackage.Registry registry) throws IOException {
+		File hashesFile = new File(directory, HASHES_FILE);
+		File descriptionsFile = new File(directory, DESCRIPTIONS_FILE);
+		if (!hashesFile.isFile() || !descriptionsFile.isFile()) {
+			return -1;
+		}
+		Properties hashes = new Properties();
+		try (InputStream in = java.nio.file.Files.newInputStream(hashesFile.toPath())) {
+			hashes.load(in);
+		}
+		if (!java.nio.file.Files.isDirectory(outputDirectory.toPath())) {
+			return -1;
+		}
+		Path root = outputDirectory.toPath();
+		try (Stream<Path> walker = java.nio.file.Files.walk(root)) {
+			for (Path model : (Iterable<Path>) walker::iterator) {
+				if (fileExtensions.contains(Files.getFileExtension(model.getFileName().toString()))
+						&& java.nio.file.Files.isRegularFile(model)) {
+					String relativePath = root.relativize(model).toString().replace(File.separatorChar, '/');
+					String storedHash = hashes.getProperty(relativePath);
+					if (storedHash == null || !storedHash.equals(hash(model.toFile()))) {
+						return -1;
+					}
+				}
+			}
+		}
+		URI baseURI = URI.createFileURI(outputDirectory.getAbsolutePath() + File.separator);
+		PrecomputedResourceDescriptions stored = new PrecomputedResourceDescriptions();
+		try (InputStream in = java.nio.file.Files.newInputStream(descriptionsFile.toPath())) {
+			stored.read(in, baseURI, registry);
+		}
+		int models = 0;
+		for (IResourceDescription description : stored.getDescriptions()) {
+			if (new File(description.getURI().toFileString()).isFile()) {
+				descriptions.getDescriptions().add(description);
+				models++;
+			}
+		}
+		return models;
+	}
+
+	private static Path getSourceRoot(File model, List<File> sourceRoots) {
+		Path path = model.getAbsoluteFile().toPath().normalize();
+		for (File sourceRoot : sourceRoots) {
+			Path root = sourceRoot.getAbsoluteFile().toPath().normalize();
+			if (path.startsWith(root)) {
+				return root;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return whether all exported objects of the description are in models of
+	 *         the given source root, whose relative paths are kept in the output
+	 *         directory
+	 */
+	private static boolean isRelocatable(IResourceDescription description, Path sourceRoot) {
+		for (IEObjectDescription exportedObject : description.getExportedObjects()) {
+			URI resourceURI = exportedObject.getEObjectURI().trimFragment();
+			if (!resourceURI.isFile()
+					|| !Paths.get(resourceURI.toFileString()).toAbsolutePath().normalize().startsWith(sourceRoot)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String hash(File file) throws IOException {
+		return Files.asByteSource(file).hash(Hashing.murmur3_128()).toString();
+	}
+
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceFactoryRegistryImpl;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.inject.Inject;
+
+/**
+ * The resource set of the standalone builder.
+ * <p>
+ * If {@link PrecomputedResourceDescriptions} are bound, it adds them to the
+ * index as soon as the builder installs it, so that the upstream models they
+ * describe are neither loaded nor indexed by the builder.
+ * <p>
+ * If a {@link ResourceDependencyGraph} is bound, it records the resources in
+ * the order the builder requests them and the cross references resolved while
+ * a resource is processed.
+ * <p>
+ * If a {@link ResourceLoadCounter} is bound, it counts how often each resource
+ * is loaded.
+ * <p>
+ * If a {@link BuildReport} is bound, it records the time and memory spent on
+ * loading the resources, and on resolving the cross references of the
+ * processed resource to other resources, per file extension. The linking
+ * includes the loading of the referenced resources.
+ * <p>
+ * If a {@link MainScopeIndex} is bound, it is handed the index of the builder.
+ * <p>
+ * It loads the resources with copies of the JVM-global EMF registries, so that
+ * the language setups of parallel executions can modify the registries while
+ * it builds.
+ * 
+ * @since 2.31
+ */
+public class MavenBuilderResourceSet extends XtextResourceSet {
+
+	@Inject(optional = true)
+	private PrecomputedResourceDescriptions precomputedDescriptions;
+
+	@Inject(optional = true)
+	private ResourceDependencyGraph dependencyGraph;
+
+	@Inject(optional = true)
+	private ResourceLoadCounter loadCounter;
+
+	@Inject(optional = true)
+	private BuildReport buildReport;
+
+	@Inject(optional = true)
+	private MainScopeIndex mainScopeIndex;
+
+	private URI processedResource;
+
+	private int resolvingProxies;
+
+	public MavenBuilderResourceSet() {
+		copyGlobalRegistries(this);
+	}
+
+	/**
+	 * Replaces the package and resource factory registries of the given resource
+	 * set with copies of the JVM-global registries, taken under the read lock of
+	 * {@link AbstractXtextMojo#emfRegistryLock}. The resource set then doesn't
+	 * read the global registries while it loads resources.
+	 */
+	public static void copyGlobalRegistries(ResourceSet resourceSet) {
+		EPackageRegistryImpl packageRegistry = new EPackageRegistryImpl();
+		ResourceFactoryRegistryImpl resourceFactoryRegistry = new ResourceFactoryRegistryImpl();
+		AbstractXtextMojo.emfRegistryLock.readLock().lock();
+		try {
+			packageRegistry.putAll(EPackage.Registry.INSTANCE);
+			Resource.Factory.Registry globalFactories = Resource.Factory.Registry.INSTANCE;
+			resourceFactoryRegistry.getExtensionToFactoryMap().putAll(globalFactories.getExtensionToFactoryMap());
+			resourceFactoryRegistry.getProtocolToFactoryMap().putAll(globalFactories.getProtocolToFactoryMap());
+			resourceFactoryRegistry.getContentTypeToFactoryMap()
+					.putAll(globalFactories.getContentTypeToFactoryMap());
+		} finally {
+			AbstractXtextMojo.emfRegistryLock.readLock().unlock();
+		}
+		resourceSet.setPackageRegistry(packageRegistry);
+		resourceSet.setResourceFactoryRegistry(resourceFactoryRegistry);
+	}
+
+	@Override
+	public EList<Adapter> eAdapters() {
+		if (eAdapters == null) {
+			eAdapters = new EAdapterList<Adapter>(this) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void didAdd(int index, Adapter newObject) {
+					super.didAdd(index, newObject);
+					if (newObject instanceof ResourceDescriptionsData.ResourceSetAdapter) {
+						ResourceDescriptionsData index = ((ResourceDescriptionsData.ResourceSetAdapter) newObject)
+								.getResourceDescriptionsData();
+						addPrecomputedDescriptions(index);
+						if (mainScopeIndex != null) {
+							mainScopeIndex.setIndex(index);
+						}
+					}
+				}
+			};
+		}
+		return eAdapters;
+	}
+
+	protected void addPrecomputedDescriptions(ResourceDescriptionsData index) {
+		if (precomputedDescriptions == null) {
+			return;
+		}
+		for (IResourceDescription description : precomputedDescriptions.getDescriptions()) {
+			if (index.getResourceDescription(description.getURI()) == null) {
+				index.addDescription(description.getURI(), description);
+			}
+		}
+	}
+
+	@Override
+	public EObject getEObject(URI uri, boolean loadOnDemand) {
+		if (buildReport != null && resolvingProxies == 0) {
+			try (BuildReport.Phase phase = buildReport.start("linking",
+					processedResource != null ? processedResource.fileExtension() : null)) {
+				return resolve(uri, loadOnDemand);
+			}
+		}
+		return resolve(uri, loadOnDemand);
+	}
+
+	private EObject resolve(URI uri, boolean loadOnDemand) {
+		resolvingProxies++;
+		try {
+			return super.getEObject(uri, loadOnDemand);
+		} finally {
+			resolvingProxies--;
+		}
+	}
+
+	@Override
+	public Resource getResource(URI uri, boolean loadOnDemand) {
+		if (isModel(uri)) {
+			if (resolvingProxies == 0) {
+				processedResource = uri;
+				if (dependencyGraph != null) {
+					dependencyGraph.addResource(uri.toString());
+				}
+			} else if (dependencyGraph != null && processedResource != null && !processedResource.equals(uri)) {
+				dependencyGraph.addReference(processedResource.toString(), uri.toString());
+			}
+		}
+		return super.getResource(uri, loadOnDemand);
+	}
+
+	@Override
+	protected void demandLoadHelper(Resource resource) {
+		if (buildReport != null) {
+			long startNanos = System.nanoTime();
+			long startAllocatedBytes = BuildReport.getAllocatedBytes();
+			super.demandLoadHelper(resource);
+			buildReport.resourceLoaded(resource.getURI().fileExtension(), System.nanoTime() - startNanos,
+					startAllocatedBytes >= 0 ? BuildReport.getAllocatedBytes() - startAllocatedBytes : -1);
+		} else {
+			super.demandLoadHelper(resource);
+		}
+		if (loadCounter != null && isModel(resource.getURI())) {
+			loadCounter.resourceLoaded(resource.getURI().toString());
+		}
+	}
+
+	/**
+	 * Java types are provided by the type provider and not clustered by the
+	 * builder.
+	 */
+	protected boolean isModel(URI uri) {
+		return uri != null && !"java".equals(uri.scheme());
+	}
+
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.eclipse.xtext.util.RuntimeIOException;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+/**
+ * A {@link JavaIoFileSystemAccess} that can leave files whose content didn't
+ * change untouched. This keeps their modification time, so the stale source
+ * detection of the maven-compiler-plugin and the following steps don't redo
+ * their work for unchanged generated sources. The files of output
+ * configurations with an {@link AsyncFileWriter} are written by its writer
+ * threads. If a {@link BuildReport} is set, it records the writing of the
+ * files.
+ *
+ * @since 2.31
+ */
+public class MavenFileSystemAccess extends JavaIoFileSystemAccess {
+
+	private GeneratedFileStatistics statistics = new GeneratedFileStatistics();
+
+	private boolean writeChangedFilesOnly = true;
+
+	private Map<String, AsyncFileWriter> fileWriters = Collections.emptyMap();
+
+	private boolean writeTrace = true;
+
+	private BuildReport buildReport;
+
+	private String language;
+
+	public void setStatistics(GeneratedFileStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public void setWriteChangedFilesOnly(boolean writeChangedFilesOnly) {
+		this.writeChangedFilesOnly = writeChangedFilesOnly;
+	}
+
+	/**
+	 * @param fileWriters the asynchronous writers by output configuration name
+	 */
+	public void setFileWriters(Map<String, AsyncFileWriter> fileWriters) {
+		this.fileWriters = fileWriters;
+	}
+
+	/**
+	 * @param buildReport records the writing of the files, may be
+	 *                    <code>null</code>
+	 * @param language    the language the files are recorded for
+	 */
+	public void setBuildReport(BuildReport buildReport, String language) {
+		this.buildReport = buildReport;
+		this.language = language;
+	}
+
+	@Override
+	public void setWriteTrace(boolean writeTrace) {
+		super.setWriteTrace(writeTrace);
+		this.writeTrace = writeTrace;
+	}
+
+	@Override
+	public void generateFile(String fileName, String outputConfigName, CharSequence contents)
+			throws RuntimeIOException {
+		File file = getFile(fileName, outputConfigName);
+		if (!getOutputConfig(outputConfigName).isOverrideExistingResources() && file.exists()) {
+			statistics.unchanged(outputConfigName);
+			return;
+		}
+		String encoding = getEncoding(getURI(fileName, outputConfigName));
+		CharSequence postProcessed = postProcess(fileName, outputConfigName, contents, encoding);
+		writeIfChanged(file, postProcessed.toString().getBytes(Charset.forName(encoding)), outputConfigName);
+		if (writeTrace) {
+			generateTrace(fileName, outputConfigName, postProcessed);
+		}
+	}
+
+	@Override
+	public void generateFile(String fileName, String outputConfigName, InputStream content)
+			throws RuntimeIOException {
+		File file = getFile(fileName, outputConfigName);
+		if (!getOutputConfig(outputConfigName).isOverrideExistingResources() && file.exists()) {
+			statistics.unchanged(outputConfigName);
+			return;
+		}
+		try {
+			byte[] bytes;
+			try {
+				bytes = ByteStreams.toByteArray(content);
+			} finally {
+				content.close();
+			}
+			writeIfChanged(file, bytes, outputConfigName);
+		} catch (IOException e) {
+			throw new RuntimeIOException(e);
+		}
+	}
+
+	@Override
+	public void deleteFile(String fileName, String outputConfigName) {
+		flush(outputConfigName);
+		boolean existed = getFile(fileName, outputConfigName).exists();
+		super.deleteFile(fileName, outputConfigName);
+		if (existed) {
+			statistics.deleted(outputConfigName);
+		}
+	}
+
+	@Override
+	public CharSequence readTextFile(String fileName, String outputConfigName) throws RuntimeIOException {
+		flush(outputConfigName);
+		return super.readTextFile(fileName, outputConfigName);
+	}
+
+	@Override
+	public InputStream readBinaryFile(String fileName, String outputConfigName) throws RuntimeIOException {
+		flush(outputConfigName);
+		return super.readBinaryFile(fileName, outputConfigName);
+	}
+
+	@Override
+	public boolean isFile(String path, String outputConfigName) throws RuntimeIOException {
+		flush(outputConfigName);
+		return super.isFile(path, outputConfigName);
+	}
+
+	/**
+	 * Waits for the queued files of the output configuration, so that they are
+	 * read or deleted after they have been written.
+	 */
+	private void flush(String outputConfigName) {
+		AsyncFileWriter fileWriter = fileWriters.get(outputConfigName);
+		if (fileWriter != null) {
+			try {
+				fileWriter.flush();
+			} catch (IOException e) {
+				throw new RuntimeIOException(e);
+			}
+		}
+	}
+
+	private void writeIfChanged(File file, byte[] content, String outputConfigName) {
+		AsyncFileWriter fileWriter = fileWriters.get(outputConfigName);
+		try {
+			if (fileWriter != null) {
+				fileWriter.write(file, content, (target, bytes) -> writeFile(target, bytes, outputConfigName));
+			} else {
+				createFolder(file.getParentFile());
+				writeFile(file, content, outputConfigName);
+			}
+		} catch (IOException e) {
+			throw new RuntimeIOException(e);
+		}
+	}
+
+	private void writeFile(File file, byte[] content, String outputConfigName) throws IOException {
+		if (buildReport != null) {
+			try (BuildReport.Phase phase = buildReport.start("writing", language)) {
+				phase.addResources(1);
+				writeFileIfChanged(file, content, outputConfigName);
+			}
+		} else {
+			writeFileIfChanged(file, content, outputConfigName);
+		}
+	}
+
+	private void writeFileIfChanged(File file, byte[] content, String outputConfigName) throws IOException {
+		if (writeChangedFilesOnly && file.length() == content.length && file.isFile()
+				&& Arrays.equals(Files.toByteArray(file), content)) {
+			statistics.unchanged(outputConfigName);
+			return;
+		}
+		Files.write(content, file);
+		statistics.written(outputConfigName);
+	}
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.xtext.builder.standalone.LanguageAccess;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.eclipse.xtext.generator.OutputConfiguration;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+
+import com.google.inject.Injector;
+
+/**
+ * A {@link LanguageAccess} whose file system access counts the generated
+ * files, optionally only writes files with changed content and writes the
+ * files of some output configurations asynchronously. If a {@link BuildReport}
+ * is given, it records the writing of the files. Languages that bind
+ * their own {@link JavaIoFileSystemAccess} keep it.
+ *
+ * @since 2.31
+ */
+public class MavenLanguageAccess extends LanguageAccess {
+
+	private final Injector injector;
+
+	private final GeneratedFileStatistics statistics;
+
+	private final boolean writeChangedFilesOnly;
+
+	private final Map<String, AsyncFileWriter> fileWriters;
+
+	private final BuildReport buildReport;
+
+	private final String language;
+
+	public MavenLanguageAccess(Set<OutputConfiguration> outputConfigurations,
+			IResourceServiceProvider resourceServiceProvider, boolean linksAgainstJava, Injector injector,
+			GeneratedFileStatistics statistics, boolean writeChangedFilesOnly,
+			Map<String, AsyncFileWriter> fileWriters, BuildReport buildReport, String language) {
+		super(outputConfigurations, resourceServiceProvider, linksAgainstJava);
+		this.injector = injector;
+		this.statistics = statistics;
+		this.writeChangedFilesOnly = writeChangedFilesOnly;
+		this.fileWriters = fileWriters;
+		this.buildReport = buildReport;
+		this.language = language;
+	}
+
+	/**
+	 * Replaces the {@link JavaIoFileSystemAccess} of the language with a
+	 * {@link MavenFileSystemAccess}, unless the language binds a subclass of its
+	 * own. That one is used as it is, without the counting, the comparison and
+	 * the asynchronous writers.
+	 */
+	@Override
+	public JavaIoFileSystemAccess createFileSystemAccess(File baseDir) {
+		JavaIoFileSystemAccess configured = super.createFileSystemAccess(baseDir);
+		if (configured.getClass() != JavaIoFileSystemAccess.class) {
+			return configured;
+		}
+		MavenFileSystemAccess result = injector.getInstance(MavenFileSystemAccess.class);
+		result.setOutputConfigurations(configured.getOutputConfigurations());
+		result.setStatistics(statistics);
+		result.setWriteChangedFilesOnly(writeChangedFilesOnly);
+		result.setFileWriters(fileWriters);
+		result.setBuildReport(buildReport, language);
+		return result;
+	}
+
+}
@@ -22,17 +22,83 @@ public class MavenLog4JConfigurator {
 
 	protected final static Level LOG4J_DEFAULT_LOG_LEVEL = Level.INFO;
 
+	/**
+	 * The Maven log of the mojo execution running on the current thread. Log4J
+	 * is configured JVM wide, so with parallel builds (<code>mvn -T</code>) the
+	 * appender routes every event to the log of the execution that emitted it.
+	 * The value isn't inherited, as pooled threads would keep the log of the
+	 * execution that started them; tasks of an execution that run on other
+	 * threads are wrapped with {@link #propagate(Runnable)}.
+	 */
+	private static final ThreadLocal<Log> currentLog = new ThreadLocal<>();
+
+	/**
+	 * The asynchronous log of the mojo execution running on the current thread,
+	 * if enabled.
+	 */
+	private static final ThreadLocal<AsyncBuilderLog> currentAsyncLog = new ThreadLocal<>();
+
 	public void configureLog4j(Log log) {
-		if (!Logger.getRootLogger().getAllAppenders().hasMoreElements()) {
+		currentLog.set(log);
+		synchronized (MavenLog4JConfigurator.class) {
+			if (!Logger.getRootLogger().getAllAppenders().hasMoreElements()) {
+				try {
+					Logger.getRootLogger().setLevel(LOG4J_DEFAULT_LOG_LEVEL);
+				} catch (NoSuchMethodError e) {
+					// see http://bugzilla.slf4j.org/show_bug.cgi?id=279
+				}
+				Logger.getRootLogger().addAppender(createMojoLogAppender(log));
+			} else {
+				configureLog4j(log, "org.eclipse.xtext");
+				configureLog4j(log, "org.eclipse.xtend");
+			}
+		}
+	}
+
+	/**
+	 * Detaches the Maven log of the current thread. Events logged afterwards on
+	 * this thread go to the log the appender was created with.
+	 */
+	public void releaseLog4j() {
+		currentLog.remove();
+		currentAsyncLog.remove();
+	}
+
+	/**
+	 * Forwards the events logged on the current thread to the given asynchronous
+	 * log instead of the Maven log.
+	 */
+	public void setAsyncLog(AsyncBuilderLog asyncLog) {
+		currentAsyncLog.set(asyncLog);
+	}
+
+	/**
+	 * @return a task that runs the given one with the log and asynchronous log
+	 *         of the current thread, and restores the ones of the thread that
+	 *         runs it afterwards
+	 */
+	public Runnable propagate(Runnable task) {
+		Log log = currentLog.get();
+		AsyncBuilderLog asyncLog = currentAsyncLog.get();
+		return () -> {
+			Log previousLog = currentLog.get();
+			AsyncBuilderLog previousAsyncLog = currentAsyncLog.get();
+			set(currentLog, log);
+			set(currentAsyncLog, asyncLog);
 			try {
-				Logger.getRootLogger().setLevel(LOG4J_DEFAULT_LOG_LEVEL);
-			} catch (NoSuchMethodError e) {
-				// see http://bugzilla.slf4j.org/show_bug.cgi?id=279
+				task.run();
+			} finally {
+				set(currentLog, previousLog);
+				set(currentAsyncLog, previousAsyncLog);
 			}
-			Logger.getRootLogger().addAppender(createMojoLogAppender(log));
+		};
+	}
+
+	private static <T> void set(ThreadLocal<T> threadLocal, T value) {
+		if (value != null) {
+			threadLocal.set(value);
 		} else {
-			configureLog4j(log, "org.eclipse.xtext");
-			configureLog4j(log, "org.eclipse.xtend");
+			threadLocal.remove();
 		}
 	}
 
@@ -48,7 +114,7 @@ public class MavenLog4JConfigurator {
 		logger.addAppender(createMojoLogAppender(log));
 	}
 
-	protected AppenderSkeleton createMojoLogAppender(final Log log) {
+	protected AppenderSkeleton createMojoLogAppender(final Log defaultLog) {
 		return new AppenderSkeleton() {
 
 			@Override
@@ -56,37 +122,22 @@ public class MavenLog4JConfigurator {
 				if (event.getMessage() == null) {
 					return;
 				}
-				Throwable throwable = getThrowable(event);
-				CharSequence message = String.valueOf(event.getMessage());
-				if (throwable != null) {
-					// Loggers like org.apache.maven.plugin.logging.SystemStreamLog
-					// (used by Maven Testing Harness)
-					// throw a NullPointerException if throwable is null
-					if (Level.DEBUG == event.getLevel()) {
-						log.debug(message, throwable);
-					} else if (Level.INFO == event.getLevel()) {
-						log.info(message, throwable);
-					} else if (Level.WARN == event.getLevel()) {
-						log.warn(message, throwable);
-					} else if (Level.ERROR == event.getLevel()) {
-						log.error(message, throwable);
-					}
-				} else {
-					if (Level.DEBUG == event.getLevel()) {
-						log.debug(message);
-					} else if (Level.INFO == event.getLevel()) {
-						log.info(message);
-					} else if (Level.WARN == event.getLevel()) {
-						log.warn(message);
-					} else if (Level.ERROR == event.getLevel()) {
-						log.error(message);
-					}
+				AsyncBuilderLog asyncLog = currentAsyncLog.get();
+				if (asyncLog != null) {
+					asyncLog.append(event.getLevel(), event.getMessage(), getThrowable(event));
+					return;
 				}
+				log(getLog(), event.getLevel(), String.valueOf(event.getMessage()), getThrowable(event));
 			}
 
 			public void close() {
 			}
 
+			private Log getLog() {
+				Log threadLog = currentLog.get();
+				return threadLog != null ? threadLog : defaultLog;
+			}
+
 			private Throwable getThrowable(LoggingEvent event) {
 				if (event.getThrowableInformation() != null) {
 					return event.getThrowableInformation().getThrowable();
@@ -99,4 +150,31 @@ public class MavenLog4JConfigurator {
 			}
 		};
 	}
+
+	static void log(Log log, Level level, CharSequence message, Throwable throwable) {
+		if (throwable != null) {
+			// Loggers like org.apache.maven.plugin.logging.SystemStreamLog
+			// (used by Maven Testing Harness)
+			// throw a NullPointerException if throwable is null
+			if (Level.DEBUG == level) {
+				log.debug(message, throwable);
+			} else if (Level.INFO == level) {
+				log.info(message, throwable);
+			} else if (Level.WARN == level) {
+				log.warn(message, throwable);
+			} else if (Level.ERROR == level) {
+				log.error(message, throwable);
+			}
+		} else {
+			if (Level.DEBUG == level) {
+				log.debug(message);
+			} else if (Level.INFO == level) {
+				log.info(message);
+			} else if (Level.WARN == level) {
+				log.warn(message);
+			} else if (Level.ERROR == level) {
+				log.error(message);
+			}
+		}
+	}
 }
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.builder.standalone.StandaloneBuilder;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.inject.Inject;
+
+/**
+ * The standalone builder of the generator mojos. It only builds the models of
+ * the source roots accepted by its model filter, so that the include and
+ * exclude patterns apply to single files and not only to whole source roots.
+ * If a {@link DependencyClustering} is set, it orders the models, so that
+ * strongly connected models are processed one after the other.
+ * <p>
+ * If a {@link BuildReport} is bound, it records the time and memory of the
+ * builder's steps, per file extension where a step handles single resources.
+ *
+ * @since 2.31
+ */
+public class MavenStandaloneBuilder extends StandaloneBuilder {
+
+	private Predicate<URI> modelFilter;
+
+	private DependencyClustering dependencyClustering;
+
+	@Inject(optional = true)
+	private BuildReport buildReport;
+
+	/**
+	 * @param modelFilter accepts the URIs of the models to build, all models are
+	 *                    built if <code>null</code>
+	 */
+	public void setModelFilter(Predicate<URI> modelFilter) {
+		this.modelFilter = modelFilter;
+	}
+
+	/**
+	 * @param dependencyClustering orders the models to build, they are built in
+	 *                             the order they are found if <code>null</code>
+	 */
+	public void setDependencyClustering(DependencyClustering dependencyClustering) {
+		this.dependencyClustering = dependencyClustering;
+	}
+
+	@Override
+	protected List<URI> collectResources(Iterable<String> roots, ResourceSet resourceSet) {
+		List<URI> resources = super.collectResources(roots, resourceSet);
+		if (modelFilter != null) {
+			List<URI> filtered = new ArrayList<>(resources.size());
+			for (URI resource : resources) {
+				if (modelFilter.test(resource)) {
+					filtered.add(resource);
+				}
+			}
+			resources = filtered;
+		}
+		if (dependencyClustering != null) {
+			resources = dependencyClustering.orderResources(resources);
+		}
+		return resources;
+	}
+
+	@Override
+	protected void fillIndex(URI uri, Resource resource, ResourceDescriptionsData index) {
+		try (BuildReport.Phase phase = startPhase("indexing", uri.fileExtension(), 1)) {
+			super.fillIndex(uri, resource, index);
+		}
+	}
+
+	@Override
+	protected File generateStubs(ResourceDescriptionsData data, List<URI> sourceResourceURIs) {
+		try (BuildReport.Phase phase = startPhase("stub generation", null, sourceResourceURIs.size())) {
+			return super.generateStubs(data, sourceResourceURIs);
+		}
+	}
+
+	@Override
+	protected File preCompileStubs(File tmpSourceDirectory, Iterable<String> classPathEntries) {
+		try (BuildReport.Phase phase = startPhase("stub compilation", null, 0)) {
+			return super.preCompileStubs(tmpSourceDirectory, classPathEntries);
+		}
+	}
+
+	/**
+	 * The validation of a cluster is recorded for the file extension of its
+	 * resources, or without one if they have different extensions.
+	 */
+	@Override
+	protected boolean validate(ResourceSet resourceSet) {
+		if (buildReport == null) {
+			return super.validate(resourceSet);
+		}
+		String fileExtension = null;
+		for (int i = 0; i < resourceSet.getResources().size(); i++) {
+			String current = resourceSet.getResources().get(i).getURI().fileExtension();
+			if (i > 0 && !Objects.equals(current, fileExtension)) {
+				fileExtension = null;
+				break;
+			}
+			fileExtension = current;
+		}
+		try (BuildReport.Phase phase = startPhase("validation", fileExtension, resourceSet.getResources().size())) {
+			return super.validate(resourceSet);
+		}
+	}
+
+	/**
+	 * Generates the resources one by one if a {@link BuildReport} is bound, so
+	 * that the generation is recorded per file extension.
+	 */
+	@Override
+	protected void generate(List<Resource> sourceResources) {
+		if (buildReport == null) {
+			super.generate(sourceResources);
+			return;
+		}
+		for (Resource resource : sourceResources) {
+			try (BuildReport.Phase phase = startPhase("generation", resource.getURI().fileExtension(), 1)) {
+				super.generate(Collections.singletonList(resource));
+			}
+		}
+	}
+
+	/**
+	 * @return the measurement of the given step, or <code>null</code> if no
+	 *         report is bound
+	 */
+	private BuildReport.Phase startPhase(String name, String fileExtension, int resources) {
+		if (buildReport == null) {
+			return null;
+		}
+		BuildReport.Phase phase = buildReport.start(name, fileExtension);
+		phase.addResources(resources);
+		return phase;
+	}
+
+}
@@ -8,6 +8,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.maven;
 
+import java.io.Serializable;
 import java.util.List;
 
 import org.eclipse.xtext.generator.IFileSystemAccess;
@@ -18,7 +19,9 @@ import com.google.common.collect.Lists;
  * @author Dennis Huebner - Initial contribution and API
  * 
  */
-public class OutputConfiguration {
+public class OutputConfiguration implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * a unique name identifying this outlet configuration.
@@ -119,6 +122,24 @@ public class OutputConfiguration {
 	 */
 	private boolean keepLocalHistory = false;
 
+	/**
+	 * the number of threads writing the generated files of this output
+	 * configuration asynchronously. 0 writes them on the generator thread.
+	 * 
+	 * @property
+	 * @since 2.31
+	 */
+	private int writerThreads = 0;
+
+	/**
+	 * the maximum number of bytes of generated content queued for the writer
+	 * threads. The generator waits while the queue is full.
+	 * 
+	 * @property
+	 * @since 2.31
+	 */
+	private long writerQueueSize = 16 * 1024 * 1024;
+
 	public OutputConfiguration() {
 		super();
 	}
@@ -220,6 +241,34 @@ public class OutputConfiguration {
 		this.keepLocalHistory = keepLocalHistory;
 	}
 
+	/**
+	 * @since 2.31
+	 */
+	public int getWriterThreads() {
+		return writerThreads;
+	}
+
+	/**
+	 * @since 2.31
+	 */
+	public void setWriterThreads(int writerThreads) {
+		this.writerThreads = writerThreads;
+	}
+
+	/**
+	 * @since 2.31
+	 */
+	public long getWriterQueueSize() {
+		return writerQueueSize;
+	}
+
+	/**
+	 * @since 2.31
+	 */
+	public void setWriterQueueSize(long writerQueueSize) {
+		this.writerQueueSize = writerQueueSize;
+	}
+
 	public org.eclipse.xtext.generator.OutputConfiguration toOutputConfiguration() {
 		org.eclipse.xtext.generator.OutputConfiguration copy = new org.eclipse.xtext.generator.OutputConfiguration(
 				name);
@@ -245,7 +294,10 @@ public class OutputConfiguration {
 		return copy;
 	}
 
-	public static class SourceMapping {
+	public static class SourceMapping implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		/**
 		 * The project relative source folder
 		 * 
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+
+/**
+ * The exported objects of the models of a module, stored in a compact binary
+ * file that is packaged with the module's artifact at {@link #LOCATION}.
+ * Downstream modules add them to the index of the builder instead of loading
+ * and indexing the upstream models. The models themselves are only loaded
+ * when a cross reference to them is resolved.
+ * <p>
+ * The models are stored by their path relative to the source root, which is
+ * their path in the packaged artifact. Exported objects of another model are
+ * stored with the path of that model relative to the described one, so that
+ * their URIs are rebased along with the described model when it is read.
+ * 
+ * @since 2.31
+ */
+public class PrecomputedResourceDescriptions {
+
+	/**
+	 * The location of the file inside the packaged artifact.
+	 */
+	public static final String LOCATION = "META-INF/xtext/resource-descriptions.bin";
+
+	private static final int FORMAT_VERSION = 2;
+
+	private final List<IResourceDescription> descriptions = new ArrayList<>();
+
+	public List<IResourceDescription> getDescriptions() {
+		return descriptions;
+	}
+
+	/**
+	 * Writes the exported objects of the given descriptions.
+	 * 
+	 * @param descriptions the resource descriptions by the relative path of
+	 *                     their model
+	 */
+	public static void write(Map<String, IResourceDescription> descriptions, OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(out)));
+		data.writeInt(FORMAT_VERSION);
+		data.writeInt(descriptions.size());
+		for (Map.Entry<String, IResourceDescription> entry : descriptions.entrySet()) {
+			writeString(data, entry.getKey());
+			URI resourceURI = entry.getValue().getURI();
+			List<IEObjectDescription> exportedObjects = new ArrayList<>();
+			entry.getValue().getExportedObjects().forEach(exportedObjects::add);
+			data.writeInt(exportedObjects.size());
+			for (IEObjectDescription exportedObject : exportedObjects) {
+				QualifiedName name = exportedObject.getQualifiedName();
+				data.writeInt(name.getSegmentCount());
+				for (String segment : name.getSegments()) {
+					writeString(data, segment);
+				}
+				EClass eClass = exportedObject.getEClass();
+				writeString(data, eClass.getEPackage().getNsURI());
+				writeString(data, eClass.getName());
+				URI objectURI = exportedObject.getEObjectURI();
+				URI objectResourceURI = objectURI.trimFragment();
+				writeString(data, objectResourceURI.equals(resourceURI) ? null
+						: objectResourceURI.deresolve(resourceURI).toString());
+				writeString(data, objectURI.fragment());
+				String[] userDataKeys = exportedObject.getUserDataKeys();
+				data.writeInt(userDataKeys.length);
+				for (String key : userDataKeys) {
+					writeString(data, key);
+					writeString(data, exportedObject.getUserData(key));
+				}
+			}
+		}
+		data.flush();
+		data.close();
+	}
+
+	/**
+	 * Reads the exported objects stored in the given stream and adds them to this
+	 * instance.
+	 * 
+	 * @param baseURI  the URI the stored relative model paths are appended to,
+	 *                 e.g. the archive URI of a jar ending with a separator
+	 * @param registry the registry to look up the EClasses of the exported objects
+	 * @return the number of resource descriptions read
+	 */
+	public int read(InputStream in, URI baseURI, EPackage.Registry registry) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+		int version = data.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported resource description format " + version);
+		}
+		int resourceCount = data.readInt();
+		for (int i = 0; i < resourceCount; i++) {
+			URI resourceURI = baseURI.appendSegments(readString(data).split("/"));
+			int objectCount = data.readInt();
+			List<IEObjectDescription> exportedObjects = new ArrayList<>(objectCount);
+			for (int j = 0; j < objectCount; j++) {
+				int segmentCount = data.readInt();
+				String[] segments = new String[segmentCount];
+				for (int k = 0; k < segmentCount; k++) {
+					segments[k] = readString(data);
+				}
+				String nsURI = readString(data);
+				String eClassName = readString(data);
+				String objectResourcePath = readString(data);
+				String fragment = readString(data);
+				int userDataCount = data.readInt();
+				Map<String, String> userData = new HashMap<>();
+				for (int k = 0; k < userDataCount; k++) {
+					userData.put(readString(data), readString(data));
+				}
+				EClass eClass = getEClass(registry, nsURI, eClassName);
+				if (eClass != null) {
+					EObject proxy = EcoreUtil.create(eClass);
+					URI objectResourceURI = objectResourcePath == null ? resourceURI
+							: URI.createURI(objectResourcePath).resolve(resourceURI);
+					((InternalEObject) proxy).eSetProxyURI(objectResourceURI.appendFragment(fragment));
+					exportedObjects.add(EObjectDescription.create(QualifiedName.create(segments), proxy, userData));
+				}
+			}
+			descriptions.add(new PrecomputedResourceDescription(resourceURI, exportedObjects));
+		}
+		return resourceCount;
+	}
+
+	private EClass getEClass(EPackage.Registry registry, String nsURI, String name) {
+		EPackage ePackage = registry.getEPackage(nsURI);
+		if (ePackage == null) {
+			return null;
+		}
+		EClassifier eClassifier = ePackage.getEClassifier(name);
+		return eClassifier instanceof EClass ? (EClass) eClassifier : null;
+	}
+
+	private static void writeString(DataOutputStream data, String value) throws IOException {
+		if (value == null) {
+			data.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			data.writeInt(bytes.length);
+			data.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream data) throws IOException {
+		int length = data.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		data.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	protected static class PrecomputedResourceDescription extends AbstractResourceDescription {
+
+		private final URI uri;
+
+		private final List<IEObjectDescription> exportedObjects;
+
+		public PrecomputedResourceDescription(URI uri, List<IEObjectDescription> exportedObjects) {
+			this.uri = uri;
+			this.exportedObjects = exportedObjects;
+		}
+
+		@Override
+		protected List<IEObjectDescription> computeExportedObjects() {
+			return exportedObjects;
+		}
+
+		@Override
+		public Iterable<QualifiedName> getImportedNames() {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public Iterable<IReferenceDescription> getReferenceDescriptions() {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+	}
+
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The cross references between the resources of a build, as observed by the
+ * {@link MavenBuilderResourceSet}, in the order the builder processed the
+ * resources. Its strongly connected components are the groups of resources
+ * the {@link DependencyClustering} keeps in one cluster.
+ * 
+ * @since 2.31
+ */
+public class ResourceDependencyGraph {
+
+	private final Map<String, Set<String>> references = new LinkedHashMap<>();
+
+	/**
+	 * Records that the builder processes the given resource.
+	 */
+	public synchronized void addResource(String uri) {
+		references.computeIfAbsent(uri, k -> new LinkedHashSet<>());
+	}
+
+	/**
+	 * Records a cross reference between two resources.
+	 */
+	public synchronized void addReference(String from, String to) {
+		addResource(to);
+		references.computeIfAbsent(from, k -> new LinkedHashSet<>()).add(to);
+	}
+
+	public synchronized int getResourceCount() {
+		return references.size();
+	}
+
+	/**
+	 * @return the strongly connected components, referenced components before the
+	 *         components referencing them.
+	 */
+	public synchronized List<List<String>> getStronglyConnectedComponents() {
+		// iterative variant of Tarjan's algorithm
+		Map<String, Integer> index = new HashMap<>();
+		Map<String, Integer> lowLink = new HashMap<>();
+		Set<String> onStack = new HashSet<>();
+		Deque<String> stack = new ArrayDeque<>();
+		List<List<String>> result = new ArrayList<>();
+		for (String root : references.keySet()) {
+			if (index.containsKey(root)) {
+				continue;
+			}
+			Deque<String> path = new ArrayDeque<>();
+			Deque<Iterator<String>> children = new ArrayDeque<>();
+			visit(root, index, lowLink, onStack, stack, path, children);
+			while (!path.isEmpty()) {
+				String node = path.peek();
+				Iterator<String> iterator = children.peek();
+				if (iterator.hasNext()) {
+					String child = iterator.next();
+					if (!index.containsKey(child)) {
+						visit(child, index, lowLink, onStack, stack, path, children);
+					} else if (onStack.contains(child)) {
+						lowLink.put(node, Math.min(lowLink.get(node), index.get(child)));
+					}
+				} else {
+					path.pop();
+					children.pop();
+					if (!path.isEmpty()) {
+						String parent = path.peek();
+						lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+					}
+					if (lowLink.get(node).equals(index.get(node))) {
+						List<String> component = new ArrayList<>();
+						String member;
+						do {
+							member = stack.pop();
+							onStack.remove(member);
+							component.add(member);
+						} while (!member.equals(node));
+						result.add(component);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private void visit(String node, Map<String, Integer> index, Map<String, Integer> lowLink, Set<String> onStack,
+			Deque<String> stack, Deque<String> path, Deque<Iterator<String>> children) {
+		index.put(node, index.size());
+		lowLink.put(node, index.get(node));
+		stack.push(node);
+		onStack.add(node);
+		path.push(node);
+		children.push(references.getOrDefault(node, Collections.emptySet()).iterator());
+	}
+
+	/**
+	 * Estimates the reloads of a pass of the builder over the given clusters: the
+	 * resource set is cleared between two clusters, and each resource of a
+	 * cluster loads the resources it references, unless they are loaded already.
+	 * 
+	 * @param clusters the resources of each cluster in the order they are
+	 *                 processed
+	 * @return how often a resource is loaded again after the cluster it was
+	 *         loaded in was removed from the resource set
+	 */
+	public synchronized int estimateReloads(List<List<String>> clusters) {
+		Set<String> loadedBefore = new HashSet<>();
+		int reloads = 0;
+		for (List<String> cluster : clusters) {
+			Set<String> loaded = new HashSet<>();
+			for (String resource : cluster) {
+				reloads += load(resource, loaded, loadedBefore);
+				for (String target : references.getOrDefault(resource, Collections.emptySet())) {
+					reloads += load(target, loaded, loadedBefore);
+				}
+			}
+		}
+		return reloads;
+	}
+
+	private static int load(String resource, Set<String> loaded, Set<String> loadedBefore) {
+		if (!loaded.add(resource) || loadedBefore.add(resource)) {
+			return 0;
+		}
+		return 1;
+	}
+
+	public synchronized void store(File file) throws IOException {
+		file.getParentFile().mkdirs();
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, Set<String>> entry : references.entrySet()) {
+				writer.write(entry.getKey());
+				for (String target : entry.getValue()) {
+					writer.write('\t');
+					writer.write(target);
+				}
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * @return the stored graph, or <code>null</code> if the file doesn't exist
+	 */
+	public static ResourceDependencyGraph load(File file) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		ResourceDependencyGraph graph = new ResourceDependencyGraph();
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] uris = line.split("\t");
+				graph.addResource(uris[0]);
+				for (int i = 1; i < uris.length; i++) {
+					graph.addReference(uris[0], uris[i]);
+				}
+			}
+		}
+		return graph;
+	}
+
+}
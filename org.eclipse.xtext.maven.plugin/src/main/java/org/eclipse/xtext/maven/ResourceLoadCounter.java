@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts how often the {@link MavenBuilderResourceSet} loads each resource,
+ * so that the clustering policies can report the resources that were loaded
+ * again after their cluster was removed from the resource set.
+ *
+ * @since 2.31
+ */
+public class ResourceLoadCounter {
+
+	private final Map<String, Integer> loads = new HashMap<>();
+
+	/**
+	 * Records that the given resource has been loaded into the resource set.
+	 */
+	public synchronized void resourceLoaded(String uri) {
+		loads.merge(uri, 1, Integer::sum);
+	}
+
+	/**
+	 * @return how often resources have been loaded again after they were removed
+	 *         from the resource set
+	 */
+	public synchronized int getReloads() {
+		int reloads = 0;
+		for (int count : loads.values()) {
+			reloads += count - 1;
+		}
+		return reloads;
+	}
+
+}
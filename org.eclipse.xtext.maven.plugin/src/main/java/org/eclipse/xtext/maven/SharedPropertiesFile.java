@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * A properties file that several Maven JVMs update, like the indexes in the
+ * local repository's cache. An update reads the current content of the file,
+ * lets the caller merge its changes into it and replaces the file atomically,
+ * all under a file lock, so that concurrent updates don't drop each other's
+ * entries.
+ *
+ * @since 2.31
+ */
+public class SharedPropertiesFile {
+
+	private final File file;
+
+	private final String comment;
+
+	public SharedPropertiesFile(File file, String comment) {
+		this.file = file;
+		this.comment = comment;
+	}
+
+	/**
+	 * @return the content of the file, empty if it doesn't exist
+	 */
+	public Properties load() throws IOException {
+		Properties properties = new Properties();
+		if (file.isFile()) {
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				properties.load(in);
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * @param merge merges the changes of the caller into the current content of
+	 *              the file
+	 */
+	public void update(Consumer<Properties> merge) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		directory.mkdirs();
+		// a JVM can't hold the file lock twice, so its threads wait for each other
+		// first
+		synchronized (SharedPropertiesFile.class) {
+			try (FileChannel lockChannel = FileChannel.open(new File(directory, file.getName() + ".lock").toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE); FileLock lock = lockChannel.lock()) {
+				Properties properties = load();
+				merge.accept(properties);
+				File tmpFile = File.createTempFile(file.getName(), ".tmp", directory);
+				try (OutputStream out = Files.newOutputStream(tmpFile.toPath())) {
+					properties.store(out, comment);
+				}
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.common.util.URI;
+
+import com.google.common.io.Files;
+
+/**
+ * Finds the model files in the source roots. The directories are walked in
+ * parallel, directories matching an exclude pattern are not entered and only
+ * files with the file extension of a language are matched against the
+ * patterns.
+ * <p>
+ * The patterns are globs relative to the source root, like
+ * <code>**&#47;*.mydsl</code> or <code>**&#47;generated&#47;**</code>. As in
+ * Maven, a leading <code>**&#47;</code> also matches no directory at all.
+ * <p>
+ * If the file extensions of the languages aren't known yet, all files are
+ * matched and the result is narrowed down with
+ * {@link Result#retainFileExtensions(Set)} later. The file extensions found
+ * in the walked directories are recorded either way.
+ *
+ * @since 2.31
+ */
+public class SourceRootScanner {
+
+	/**
+	 * The model files found per source root and the numbers of the scan.
+	 */
+	public static class Result {
+		private final Map<File, List<Path>> models = new LinkedHashMap<>();
+		private final Set<String> fileExtensions = ConcurrentHashMap.newKeySet();
+		private final AtomicInteger directories = new AtomicInteger();
+		private final ConcurrentLinkedQueue<Path> prunedDirectories = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger files = new AtomicInteger();
+		private final ConcurrentLinkedQueue<Path> excludedModels = new ConcurrentLinkedQueue<>();
+		private long time;
+
+		/**
+		 * @return the model files by source root, including the roots without
+		 *         models
+		 */
+		public Map<File, List<Path>> getModels() {
+			return models;
+		}
+
+		public int getModelCount() {
+			int count = 0;
+			for (List<Path> rootModels : models.values()) {
+				count += rootModels.size();
+			}
+			return count;
+		}
+
+		public int getExcludedModelCount() {
+			return excludedModels.size();
+		}
+
+		/**
+		 * @return the file extensions of all files in the directories that aren't
+		 *         excluded
+		 */
+		public Set<String> getFileExtensions() {
+			return fileExtensions;
+		}
+
+		/**
+		 * Drops the files that don't have one of the given file extensions from
+		 * the models and the excluded models.
+		 */
+		public void retainFileExtensions(Set<String> modelFileExtensions) {
+			Predicate<Path> other = path -> !modelFileExtensions
+					.contains(Files.getFileExtension(path.getFileName().toString()));
+			for (List<Path> rootModels : models.values()) {
+				rootModels.removeIf(other);
+			}
+			excludedModels.removeIf(other);
+		}
+
+		/**
+		 * @return whether the scan excluded any model, i.e. whether the builder
+		 *         needs the {@link #createModelFilter() model filter}
+		 */
+		public boolean hasExcludedModels() {
+			return !excludedModels.isEmpty() || !prunedDirectories.isEmpty();
+		}
+
+		/**
+		 * @return the models that don't match the patterns
+		 */
+		public Collection<Path> getExcludedModels() {
+			return excludedModels;
+		}
+
+		/**
+		 * @return the directories that weren't entered because they match an
+		 *         exclude pattern
+		 */
+		public Collection<Path> getExcludedDirectories() {
+			return prunedDirectories;
+		}
+
+		/**
+		 * @return a filter that rejects the URIs of the excluded models and of the
+		 *         files in excluded directories, and accepts all others,
+		 *         including the ones outside of the source roots
+		 */
+		public Predicate<URI> createModelFilter() {
+			return SourceRootScanner.createModelFilter(excludedModels, prunedDirectories);
+		}
+
+		@Override
+		public String toString() {
+			return "Scanned " + models.size() + " source root(s) in " + time + "ms: " + directories
+					+ " directories (" + prunedDirectories.size() + " excluded), " + files + " files, " + getModelCount()
+					+ " model(s) (" + getExcludedModelCount() + " excluded)";
+		}
+	}
+
+	/**
+	 * @return a filter that rejects the URIs of the given models and of the files
+	 *         in the given directories, and accepts all others
+	 */
+	public static Predicate<URI> createModelFilter(Collection<Path> excludedModels,
+			Collection<Path> excludedDirectories) {
+		Set<Path> excluded = new HashSet<>();
+		for (Path path : excludedModels) {
+			excluded.add(path.toAbsolutePath().normalize());
+		}
+		List<Path> directories = new ArrayList<>();
+		for (Path path : excludedDirectories) {
+			directories.add(path.toAbsolutePath().normalize());
+		}
+		return uri -> {
+			if (!uri.isFile()) {
+				return true;
+			}
+			Path path = Paths.get(uri.toFileString()).toAbsolutePath().normalize();
+			if (excluded.contains(path)) {
+				return false;
+			}
+			for (Path directory : directories) {
+				if (path.startsWith(directory)) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+
+	private final Set<String> fileExtensions;
+
+	private final List<PathMatcher> includes;
+
+	private final List<PathMatcher> excludes;
+
+	private final List<PathMatcher> excludedDirectories;
+
+	/**
+	 * @param fileExtensions the file extensions of the languages, all files are
+	 *                       matched if <code>null</code>
+	 * @param includes       the patterns of the models to include, all models if
+	 *                       empty or <code>null</code>
+	 * @param excludes       the patterns of the files and directories to
+	 *                       exclude, may be <code>null</code>
+	 */
+	public SourceRootScanner(Set<String> fileExtensions, List<String> includes, List<String> excludes) {
+		this.fileExtensions = fileExtensions;
+		this.includes = createMatchers(includes, false);
+		this.excludes = createMatchers(excludes, false);
+		this.excludedDirectories = createMatchers(excludes, true);
+	}
+
+	private static List<PathMatcher> createMatchers(List<String> patterns, boolean directories) {
+		if (patterns == null) {
+			return Collections.emptyList();
+		}
+		List<PathMatcher> result = new ArrayList<>();
+		for (String pattern : patterns) {
+			String glob = pattern.trim().replace('\\', '/');
+			if (directories) {
+				if (!glob.endsWith("/**")) {
+					continue;
+				}
+				glob = glob.substring(0, glob.length() - "/**".length());
+			}
+			result.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+			if (glob.startsWith("**/")) {
+				result.add(FileSystems.getDefault().getPathMatcher("glob:" + glob.substring("**/".length())));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Walks the given source roots in parallel.
+	 */
+	public Result scan(List<File> sourceRoots) throws IOException {
+		long start = System.currentTimeMillis();
+		Result result = new Result();
+		List<ConcurrentLinkedQueue<Path>> found = new ArrayList<>();
+		List<RecursiveAction> tasks = new ArrayList<>();
+		for (File sourceRoot : sourceRoots) {
+			ConcurrentLinkedQueue<Path> rootModels = new ConcurrentLinkedQueue<>();
+			found.add(rootModels);
+			if (sourceRoot.isDirectory()) {
+				Path root = sourceRoot.toPath();
+				tasks.add(new ScanDirectory(root, root, rootModels, result));
+			}
+		}
+		try {
+			ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(tasks);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		for (int i = 0; i < sourceRoots.size(); i++) {
+			List<Path> rootModels = new ArrayList<>(found.get(i));
+			Collections.sort(rootModels);
+			result.models.put(sourceRoots.get(i), rootModels);
+		}
+		result.time = System.currentTimeMillis() - start;
+		return result;
+	}
+
+	private class ScanDirectory extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path root;
+
+		private final Path directory;
+
+		private final ConcurrentLinkedQueue<Path> models;
+
+		private final Result result;
+
+		ScanDirectory(Path root, Path directory, ConcurrentLinkedQueue<Path> models, Result result) {
+			this.root = root;
+			this.directory = directory;
+			this.models = models;
+			this.result = result;
+		}
+
+		@Override
+		protected void compute() {
+			result.directories.incrementAndGet();
+			List<ScanDirectory> subdirectories = new ArrayList<>();
+			try (DirectoryStream<Path> children = java.nio.file.Files.newDirectoryStream(directory)) {
+				for (Path child : children) {
+					Path relativePath = root.relativize(child);
+					if (java.nio.file.Files.isDirectory(child)) {
+						if (matches(excludedDirectories, relativePath)) {
+							result.prunedDirectories.add(child);
+						} else {
+							subdirectories.add(new ScanDirectory(root, child, models, result));
+						}
+						continue;
+					}
+					result.files.incrementAndGet();
+					String fileExtension = Files.getFileExtension(child.getFileName().toString());
+					if (!fileExtension.isEmpty()) {
+						result.fileExtensions.add(fileExtension);
+					}
+					if (fileExtensions != null && !fileExtensions.contains(fileExtension)) {
+						continue;
+					}
+					if (!includes.isEmpty() && !matches(includes, relativePath)
+							|| matches(excludes, relativePath)) {
+						result.excludedModels.add(child);
+					} else {
+						models.add(child);
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			invokeAll(subdirectories);
+		}
+
+		private boolean matches(List<PathMatcher> matchers, Path relativePath) {
+			for (PathMatcher matcher : matchers) {
+				if (matcher.matches(relativePath)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.xtext.builder.standalone.compiler.CompilerConfiguration;
+
+/**
+ * The configuration of a standalone builder run, prepared by a generator mojo
+ * and applied to the builder in the Maven JVM or sent to a
+ * {@link BuilderWorker}. All paths are absolute.
+ * <p>
+ * The main scope index is read when the builder is configured, as its
+ * descriptions need the packages the language setups register.
+ *
+ * @since 2.31
+ */
+public class WorkerBuildRequest implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	String baseDir;
+
+	List<Language> languages;
+
+	List<String> sourceDirs;
+
+	/**
+	 * The models and directories excluded by the include and exclude patterns,
+	 * <code>null</code> if all models of the source dirs are built.
+	 */
+	List<String> excludedModels;
+
+	List<String> excludedDirectories;
+
+	List<String> javaSourceDirs;
+
+	List<String> classPathEntries;
+
+	String classPathLookupFilter;
+
+	String encoding;
+
+	boolean failOnValidationError;
+
+	String tempDir;
+
+	boolean debugLog;
+
+	boolean incrementalBuild;
+
+	ClusteringConfig clusteringConfig;
+
+	String compilerSourceLevel;
+
+	String compilerTargetLevel;
+
+	boolean compilerSkipAnnotationProcessing;
+
+	boolean compilerPreserveInformationAboutFormalParameters;
+
+	boolean writeChangedFilesOnly;
+
+	/**
+	 * The index that records the file extensions of the languages, or
+	 * <code>null</code>.
+	 */
+	String languageIndexFile;
+
+	/**
+	 * The directory of the main scope index, or <code>null</code> if the build
+	 * neither reads nor writes it.
+	 */
+	String mainIndexDirectory;
+
+	/**
+	 * The class path entry described by the main scope index to read, or
+	 * <code>null</code>.
+	 */
+	String mainOutputDirectory;
+
+	/**
+	 * The source roots of the models of the main scope index to write, or
+	 * <code>null</code>.
+	 */
+	List<String> mainIndexSourceRoots;
+
+	/**
+	 * The locations of the projects in the platform resource map of the Maven
+	 * JVM, by project name.
+	 */
+	Map<String, String> platformResourceMap;
+
+	/**
+	 * Applies the settings to the builder, except for the languages, the class
+	 * path look up filter and the clustering.
+	 */
+	void configure(MavenStandaloneBuilder builder) {
+		builder.setBaseDir(baseDir);
+		builder.setEncoding(encoding);
+		builder.setClassPathEntries(classPathEntries);
+		builder.setSourceDirs(sourceDirs);
+		if (excludedModels != null) {
+			builder.setModelFilter(
+					SourceRootScanner.createModelFilter(toPaths(excludedModels), toPaths(excludedDirectories)));
+		}
+		builder.setJavaSourceDirs(javaSourceDirs);
+		builder.setFailOnValidationError(failOnValidationError);
+		builder.setTempDir(tempDir);
+		builder.setDebugLog(debugLog);
+		builder.setIncrementalBuild(incrementalBuild);
+		CompilerConfiguration conf = builder.getCompiler().getConfiguration();
+		conf.setSourceLevel(compilerSourceLevel);
+		conf.setTargetLevel(compilerTargetLevel);
+		conf.setVerbose(debugLog);
+		conf.setSkipAnnotationProcessing(compilerSkipAnnotationProcessing);
+		conf.setPreserveInformationAboutFormalParameters(compilerPreserveInformationAboutFormalParameters);
+	}
+
+	/**
+	 * Adds the main scope index to the given descriptions, if the models in the
+	 * main output directory didn't change since it was written.
+	 * 
+	 * @return whether the index has been read
+	 */
+	boolean readMainScopeIndex(Set<String> fileExtensions, PrecomputedResourceDescriptions descriptions, Log log) {
+		if (mainOutputDirectory == null) {
+			return false;
+		}
+		File outputDirectory = new File(mainOutputDirectory);
+		try {
+			int models = MainScopeIndex.read(new File(mainIndexDirectory), outputDirectory, fileExtensions,
+					descriptions, EPackage.Registry.INSTANCE);
+			if (models < 0) {
+				log.info("No up-to-date main scope index found, indexing the models in " + outputDirectory);
+				return false;
+			}
+			log.info("Using the main scope index of " + models + " model(s) in " + outputDirectory);
+			return true;
+		} catch (IOException e) {
+			log.warn("Couldn't read the main scope index from " + mainIndexDirectory, e);
+			return false;
+		}
+	}
+
+	/**
+	 * @param mainScopeIndexRead whether the models of the main output directory
+	 *                           are described by the main scope index
+	 * @return the class path look up filter, excluding the main output directory
+	 *         if its models don't need to be loaded
+	 */
+	String getClassPathLookupFilter(boolean mainScopeIndexRead) {
+		if (!mainScopeIndexRead) {
+			return classPathLookupFilter;
+		}
+		return "(?!" + Pattern.quote(mainOutputDirectory) + "$)"
+				+ (classPathLookupFilter != null ? "(?:" + classPathLookupFilter + ")" : ".*");
+	}
+
+	void writeMainScopeIndex(MainScopeIndex mainScopeIndex, Log log) {
+		List<File> sourceRoots = new ArrayList<>();
+		for (String sourceRoot : mainIndexSourceRoots) {
+			sourceRoots.add(new File(sourceRoot));
+		}
+		try {
+			int models = mainScopeIndex.write(new File(mainIndexDirectory), sourceRoots);
+			if (models >= 0) {
+				log.info("Main scope index of " + models + " model(s) written.");
+			}
+		} catch (IOException e) {
+			log.warn("Couldn't write the main scope index to " + mainIndexDirectory, e);
+		}
+	}
+
+	private static List<Path> toPaths(List<String> paths) {
+		List<Path> result = new ArrayList<>();
+		for (String path : paths) {
+			result.add(Paths.get(path));
+		}
+		return result;
+	}
+
+}
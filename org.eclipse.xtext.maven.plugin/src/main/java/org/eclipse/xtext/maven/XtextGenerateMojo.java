@@ -44,6 +44,11 @@ public class XtextGenerateMojo extends AbstractXtextGeneratorMojo {
 		return nonEmptyElements;
 	}
 
+	@Override
+	protected boolean isWritingMainScopeIndex() {
+		return true;
+	}
+
 	@Override
 	protected void configureMavenOutputs() {
 		for (Language language : getLanguages()) {
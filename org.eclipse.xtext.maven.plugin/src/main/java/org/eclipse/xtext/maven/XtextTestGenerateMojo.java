@@ -11,6 +11,7 @@ package org.eclipse.xtext.maven;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 
+import java.io.File;
 import java.util.List;
 import java.util.Set;
 
@@ -42,6 +43,11 @@ public class XtextTestGenerateMojo extends AbstractXtextGeneratorMojo {
 		return newLinkedHashSet(filter(classpathElementSet, emptyStringFilter()));
 	}
 
+	@Override
+	protected File getMainOutputDirectory() {
+		return new File(getProject().getBuild().getOutputDirectory());
+	}
+
 	@Override
 	protected void configureMavenOutputs() {
 		for (Language language : getLanguages()) {
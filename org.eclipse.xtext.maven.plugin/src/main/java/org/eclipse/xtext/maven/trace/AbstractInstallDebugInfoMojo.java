@@ -8,15 +8,28 @@
  *******************************************************************************/
 package org.eclipse.xtext.maven.trace;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -25,7 +38,6 @@ import javax.inject.Provider;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.eclipse.xtext.ISetup;
 import org.eclipse.xtext.generator.OutputConfiguration;
 import org.eclipse.xtext.generator.OutputConfigurationProvider;
 import org.eclipse.xtext.generator.trace.AbstractTraceRegion;
@@ -35,6 +47,8 @@ import org.eclipse.xtext.generator.trace.TraceAsSmapInstaller;
 import org.eclipse.xtext.generator.trace.TraceFileNameProvider;
 import org.eclipse.xtext.generator.trace.TraceRegionSerializer;
 import org.eclipse.xtext.maven.AbstractXtextMojo;
+import org.eclipse.xtext.maven.CachingLanguageAccessFactory;
+import org.eclipse.xtext.maven.InjectorCache;
 import org.eclipse.xtext.maven.Language;
 import org.eclipse.xtext.maven.MavenLog4JConfigurator;
 import org.eclipse.xtext.maven.MavenStandaloneBuilderModule;
@@ -62,16 +76,106 @@ public abstract class AbstractInstallDebugInfoMojo extends AbstractXtextMojo {
 	@Parameter(property = "project.basedir")
 	private File baseDirectory;
 
+	/**
+	 * Number of threads installing the traces into the class files. Each thread
+	 * uses its own trace installer. 1 installs the traces sequentially.
+	 * 
+	 * @since 2.31
+	 */
+	@Parameter(property = "xtext.installDebugInfo.threads", defaultValue = "1")
+	private int installThreads = 1;
+
+	/**
+	 * Skip class files whose content, trace file and installer are unchanged
+	 * since the trace was installed by a previous run, as recorded in a manifest
+	 * in the tmpDirectory. Unchanged class files are not rewritten, so their
+	 * modification time is kept.
+	 * 
+	 * @since 2.31
+	 */
+	@Parameter(property = "xtext.installDebugInfo.incremental", defaultValue = "true")
+	private boolean incremental = true;
+
+	/**
+	 * Directory of the manifest of the installed debug information.
+	 * 
+	 * @since 2.31
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/xtext-temp")
+	private File tmpDirectory;
+
+	/**
+	 * Maximum number of deserialized trace files kept in memory during a run.
+	 * 
+	 * @since 2.31
+	 */
+	@Parameter(property = "xtext.installDebugInfo.traceCacheSize", defaultValue = "1000")
+	private int traceCacheSize = 1000;
+
+	private static final String TRACE_DISCOVERY_CLASS_FILES = "classFiles";
+
+	private static final String TRACE_DISCOVERY_TRACE_FILES = "traceFiles";
+
+	/**
+	 * How the class files to install traces into are discovered:
+	 * <code>classFiles</code> reads the source file attribute of every class file
+	 * in the output directory, <code>traceFiles</code> looks for the trace files
+	 * in the generated source folders and only reads the class files compiled
+	 * from the traced Java files, i.e. the top level class and its
+	 * <code>$</code> nested classes. The latter is faster if most classes are
+	 * not generated, but misses additional top level classes declared in a
+	 * generated Java file.
+	 * 
+	 * @since 2.31
+	 */
+	@Parameter(property = "xtext.installDebugInfo.discovery", defaultValue = TRACE_DISCOVERY_CLASS_FILES)
+	private String traceDiscovery = TRACE_DISCOVERY_CLASS_FILES;
+
+	private DebugInfoManifest manifest;
+
+	private TraceRegionCache traceCache;
+
+	private ClassFileIndex classFileIndex;
+
+	private final AtomicInteger installed = new AtomicInteger();
+
+	private final AtomicInteger unchanged = new AtomicInteger();
+
+	private final AtomicInteger notInstalled = new AtomicInteger();
+
+	private final AtomicInteger failed = new AtomicInteger();
+
+	private final AtomicInteger writesAvoided = new AtomicInteger();
+
+	private final AtomicLong bytesWritten = new AtomicLong();
+
 	@Override
 	public void execute() throws MojoExecutionException {
+		if (!TRACE_DISCOVERY_CLASS_FILES.equals(traceDiscovery) && !TRACE_DISCOVERY_TRACE_FILES.equals(traceDiscovery)) {
+			throw new MojoExecutionException("Unknown trace discovery '" + traceDiscovery + "', expected '"
+					+ TRACE_DISCOVERY_CLASS_FILES + "' or '" + TRACE_DISCOVERY_TRACE_FILES + "'.");
+		}
 
-		synchronized (lock) {
-
-			new MavenLog4JConfigurator().configureLog4j(getLog());
+		MavenLog4JConfigurator log4JConfigurator = new MavenLog4JConfigurator();
+		log4JConfigurator.configureLog4j(getLog());
+		ClassLoader classLoader = getClass().getClassLoader();
+		InjectorCache injectorCache = getInjectorCache();
+		CachingLanguageAccessFactory languageAccessFactory = new CachingLanguageAccessFactory(injectorCache);
+		Injector injector = injectorCache.acquire(MavenStandaloneBuilderModule.class.getName(), classLoader,
+				() -> Guice.createInjector(new MavenStandaloneBuilderModule()));
+		try {
 
-			Injector injector = Guice.createInjector(new MavenStandaloneBuilderModule());
 			injector.injectMembers(this);
-
+			manifest = incremental ? loadManifest() : null;
+			traceCache = new TraceRegionCache(traceRegionSerializer, traceCacheSize);
+			installed.set(0);
+			unchanged.set(0);
+			notInstalled.set(0);
+			failed.set(0);
+			writesAvoided.set(0);
+			bytesWritten.set(0);
+
+			List<TracedLanguage> tracedLanguages = new ArrayList<>();
 			for (Language language : getLanguages()) {
 
 				Set<OutputConfiguration> outputConfigurations = language.getOutputConfigurations();
@@ -82,35 +186,95 @@ public abstract class AbstractInstallDebugInfoMojo extends AbstractXtextMojo {
 				}
 
 				try {
-					Class<?> setup = getClass().getClassLoader().loadClass(language.getSetup());
-					ISetup languageSetup = (ISetup) setup.getDeclaredConstructor().newInstance();
-					Injector languageInjector = languageSetup.createInjectorAndDoEMFRegistration();
-					FileExtensionProvider fileExtensionProvider = languageInjector
-							.getInstance(FileExtensionProvider.class);
-					TraceFileNameProvider traceFileNameProvider = languageInjector
-							.getInstance(TraceFileNameProvider.class);
-
-					for (OutputConfiguration config : outputConfigurations) {
-						ITraceToBytecodeInstaller traceInstaller = getTraceInstaller(config);
+					Injector languageInjector = languageAccessFactory.getInjector(language.getSetup(), classLoader);
+					tracedLanguages.add(new TracedLanguage(language.getSetup(),
+							languageInjector.getInstance(FileExtensionProvider.class).getFileExtensions(),
+							languageInjector.getInstance(TraceFileNameProvider.class), outputConfigurations));
+				} catch (Exception e) {
+					throw new MojoExecutionException("Failed to install traces for " + language.getSetup(), e);
+				}
+			}
+
+			if (TRACE_DISCOVERY_CLASS_FILES.equals(traceDiscovery)) {
+				try {
+					classFileIndex = scanOutputDirectory(tracedLanguages);
+				} catch (IOException e) {
+					throw new MojoExecutionException("Failed to scan the output directory " + getOutputDirectory(), e);
+				}
+			}
+
+			for (TracedLanguage language : tracedLanguages) {
+				try {
+					for (OutputConfiguration config : language.outputConfigurations) {
 						List<Trace> traces = createTraceInformation(getOutputDirectories(config),
-								traceFileNameProvider);
-						installTraces(fileExtensionProvider.getFileExtensions(), traceInstaller, traces,
-								traceFileNameProvider);
+								language.traceFileNameProvider);
+						installTraces(language.fileExtensions, () -> getTraceInstaller(config),
+								describeTraceInstaller(config), traces, language.traceFileNameProvider);
 					}
-
 				} catch (Exception e) {
-					throw new MojoExecutionException("Failed to install traces for " + language.getSetup(), e);
+					throw new MojoExecutionException("Failed to install traces for " + language.setup, e);
 				}
 			}
+			getLog().info("Debug information: " + installed + " class file(s) installed, " + unchanged
+					+ " unchanged, " + notInstalled + " without applicable trace, " + failed + " failed. "
+					+ bytesWritten + " bytes written, " + writesAvoided + " write(s) of identical content avoided.");
+			if (getLog().isDebugEnabled()) {
+				getLog().debug("Trace cache: " + traceCache.getStatistics());
+			}
+			saveManifest();
+		} finally {
+			traceCache = null;
+			classFileIndex = null;
+			languageAccessFactory.release();
+			injectorCache.release(injector);
+			log4JConfigurator.releaseLog4j();
+		}
+	}
+
+	private DebugInfoManifest loadManifest() {
+		DebugInfoManifest result = new DebugInfoManifest(new File(tmpDirectory, getManifestName()));
+		try {
+			result.load();
+		} catch (IOException e) {
+			getLog().warn("Couldn't read the debug information manifest, installing all traces.", e);
+		}
+		return result;
+	}
+
+	private void saveManifest() {
+		if (manifest != null) {
+			try {
+				manifest.save();
+			} catch (IOException e) {
+				getLog().warn("Couldn't write the debug information manifest.", e);
+			}
+			manifest = null;
 		}
 	}
 
+	/**
+	 * @return the file name of the manifest of the installed debug information
+	 * @since 2.31
+	 */
+	protected String getManifestName() {
+		return "install-debug-info.properties";
+	}
+
 	private Set<File> getOutputDirectories(OutputConfiguration config) {
 		return config.getOutputDirectories().stream().map(this::resolveFilePath).collect(Collectors.toSet());
 	}
 
 	protected abstract File getOutputDirectory();
 
+	/**
+	 * @return the root of the class files, by default the
+	 *         {@link #getOutputDirectory() output directory}
+	 * @since 2.31
+	 */
+	protected Path getClassFileRoot() {
+		return getOutputDirectory().toPath();
+	}
+
 	private ITraceToBytecodeInstaller getTraceInstaller(OutputConfiguration config) {
 		ITraceToBytecodeInstaller bytecodeInstaller = config.isInstallDslAsPrimarySource()
 				? traceAsPrimarySourceInstallerProvider.get()
@@ -122,53 +286,176 @@ public abstract class AbstractInstallDebugInfoMojo extends AbstractXtextMojo {
 		return bytecodeInstaller;
 	}
 
+	private String describeTraceInstaller(OutputConfiguration config) {
+		return config.isInstallDslAsPrimarySource()
+				? "primarySource(hideSyntheticLocalVariables=" + config.isHideSyntheticLocalVariables() + ")"
+				: "smap";
+	}
+
+	/**
+	 * The trace related services and output configurations of a language.
+	 */
+	private static class TracedLanguage {
+		final String setup;
+		final Set<String> fileExtensions;
+		final TraceFileNameProvider traceFileNameProvider;
+		final Set<OutputConfiguration> outputConfigurations;
+
+		TracedLanguage(String setup, Set<String> fileExtensions, TraceFileNameProvider traceFileNameProvider,
+				Set<OutputConfiguration> outputConfigurations) {
+			this.setup = setup;
+			this.fileExtensions = fileExtensions;
+			this.traceFileNameProvider = traceFileNameProvider;
+			this.outputConfigurations = outputConfigurations;
+		}
+	}
+
 	/**
 	 * Holds information for an {@link ITraceToBytecodeInstaller}
 	 *
 	 */
 	private class Trace {
 		File traceFile;
-		File classFile;
+		Path classFile;
+		/**
+		 * The content of the class file as read while collecting the traces, so
+		 * that it is read only once. Released after the installation.
+		 */
+		byte[] bytecode;
 	}
 
 	protected void collectTraceInformationForClassFiles(File sourceFolder, List<Trace> traces,
 			TraceFileNameProvider traceFileNameProvider) throws IOException {
 
-		File root = getOutputDirectory();
-		if (!root.exists()) {
-			getLog().info("Unable to attach trace files, output directory " + root + " does not exist");
+		Path root = getClassFileRoot();
+		if (!java.nio.file.Files.exists(root)) {
+			getLog().info("Unable to attach trace files, output directory " + getOutputDirectory() + " does not exist");
+			return;
+		}
+
+		ClassFileIndex index = classFileIndex;
+		if (index == null) {
+			index = ClassFileIndex.scan(root, debugSourceExtractor,
+					(folder, sourceName) -> isTraced(sourceFolder, folder, sourceName, traceFileNameProvider),
+					(file, e) -> getLog().error("Failed to analyze file " + file, e));
+		}
+		for (Map.Entry<Path, List<ClassFileIndex.Entry>> folderEntries : index.getEntriesByFolder().entrySet()) {
+			Path srcGenRelativeFolder = sourceFolder.toPath().resolve(folderEntries.getKey().toString());
+			for (ClassFileIndex.Entry entry : folderEntries.getValue()) {
+				Path javaFilePath = srcGenRelativeFolder.resolve(entry.getSourceName());
+				if (javaFilePath.toFile().exists()) {
+					String traceFileName = traceFileNameProvider.getTraceFromJava(entry.getSourceName());
+					Path traceFilePath = srcGenRelativeFolder.resolve(traceFileName);
+					if (traceFilePath.toFile().exists()) {
+						Trace trace = new Trace();
+						trace.classFile = entry.getClassFile();
+						trace.traceFile = traceFilePath.toFile();
+						trace.bytecode = entry.takeBytecode();
+						traces.add(trace);
+					} else {
+						getLog().debug("Trace file for file " + entry.getClassFile() + "not found");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Scans the output directory once for all languages and output
+	 * configurations. The content of the class files with a trace in one of the
+	 * source folders is kept for the installation.
+	 */
+	private ClassFileIndex scanOutputDirectory(List<TracedLanguage> tracedLanguages) throws IOException {
+		Path root = getClassFileRoot();
+		if (!java.nio.file.Files.exists(root)) {
+			return null;
+		}
+		Map<File, TraceFileNameProvider> sourceFolders = new HashMap<>();
+		for (TracedLanguage language : tracedLanguages) {
+			for (OutputConfiguration config : language.outputConfigurations) {
+				for (File sourceFolder : getOutputDirectories(config)) {
+					sourceFolders.putIfAbsent(sourceFolder, language.traceFileNameProvider);
+				}
+			}
+		}
+		ClassFileIndex index = ClassFileIndex.scan(root, debugSourceExtractor,
+				(folder, sourceName) -> sourceFolders.entrySet().stream()
+						.anyMatch(e -> isTraced(e.getKey(), folder, sourceName, e.getValue())),
+				(file, e) -> getLog().error("Failed to analyze file " + file, e));
+		getLog().info("Scanned " + index.getClassFileCount() + " class file(s) in " + getOutputDirectory() + " in "
+				+ index.getScanMillis() + "ms.");
+		return index;
+	}
+
+	private boolean isTraced(File sourceFolder, Path relativeFolder, String javaSourceName,
+			TraceFileNameProvider traceFileNameProvider) {
+		Path javaFilePath = sourceFolder.toPath().resolve(relativeFolder.toString()).resolve(javaSourceName);
+		return java.nio.file.Files.exists(javaFilePath) && java.nio.file.Files
+				.exists(javaFilePath.resolveSibling(traceFileNameProvider.getTraceFromJava(javaSourceName)));
+	}
+
+	/**
+	 * Finds the Java files with a trace file in the given source folder and the
+	 * class files compiled from them, in the same relative folder of the output
+	 * directory.
+	 * 
+	 * @since 2.31
+	 */
+	protected void collectTraceInformationForTraceFiles(File sourceFolder, List<Trace> traces,
+			TraceFileNameProvider traceFileNameProvider) throws IOException {
+
+		Path root = getClassFileRoot();
+		if (!java.nio.file.Files.exists(root)) {
+			getLog().info("Unable to attach trace files, output directory " + getOutputDirectory() + " does not exist");
+			return;
+		}
+		if (!sourceFolder.isDirectory()) {
 			return;
 		}
 
-		try (Stream<Path> walker = java.nio.file.Files.walk(root.toPath())) {
+		Map<Path, List<Path>> tracedJavaFilesByFolder = new HashMap<>();
+		try (Stream<Path> walker = java.nio.file.Files.walk(sourceFolder.toPath())) {
 			walker.forEach(path -> {
-				File file = path.toFile();
-				boolean isClassFile = "class".equals(Files.getFileExtension(file.getName()));
-				if (isClassFile) {
-					try {
-						String javaSourceName = debugSourceExtractor.getDebugSourceFileName(file);
-						Path relativeJavaFilePath = root.toPath().relativize(path);
-						Path srcGenRelativeFolder = sourceFolder.toPath().resolve(relativeJavaFilePath).getParent();
-						Path javaFilePath = srcGenRelativeFolder.resolve(javaSourceName);
-						if (javaFilePath.toFile().exists()) {
-							String traceFileName = traceFileNameProvider
-									.getTraceFromJava(javaFilePath.toFile().getName());
-							Path traceFilePath = srcGenRelativeFolder.resolve(traceFileName);
-							if (traceFilePath.toFile().exists()) {
+				String fileName = path.getFileName().toString();
+				if ("java".equals(Files.getFileExtension(fileName)) && java.nio.file.Files
+						.exists(path.resolveSibling(traceFileNameProvider.getTraceFromJava(fileName)))) {
+					tracedJavaFilesByFolder.computeIfAbsent(path.getParent(), k -> new ArrayList<>()).add(path);
+				}
+			});
+		}
+
+		for (Map.Entry<Path, List<Path>> entry : tracedJavaFilesByFolder.entrySet()) {
+			Path classFolder = root.resolve(sourceFolder.toPath().relativize(entry.getKey()).toString());
+			if (!java.nio.file.Files.isDirectory(classFolder)) {
+				continue;
+			}
+			List<String> classFileNames;
+			try (Stream<Path> children = java.nio.file.Files.list(classFolder)) {
+				classFileNames = children.map(child -> child.getFileName().toString()).collect(Collectors.toList());
+			}
+			for (Path javaFile : entry.getValue()) {
+				String javaFileName = javaFile.getFileName().toString();
+				String typeName = Files.getNameWithoutExtension(javaFileName);
+				File traceFile = javaFile.resolveSibling(traceFileNameProvider.getTraceFromJava(javaFileName)).toFile();
+				for (String classFileName : classFileNames) {
+					if (classFileName.equals(typeName + ".class")
+							|| classFileName.startsWith(typeName + "$") && classFileName.endsWith(".class")) {
+						Path classFile = classFolder.resolve(classFileName);
+						try {
+							byte[] bytecode = java.nio.file.Files.readAllBytes(classFile);
+							if (javaFileName.equals(debugSourceExtractor.getDebugSourceFileName(bytecode))) {
 								Trace trace = new Trace();
-								trace.classFile = file;
-								trace.traceFile = traceFilePath.toFile();
+								trace.classFile = classFile;
+								trace.traceFile = traceFile;
+								trace.bytecode = bytecode;
 								traces.add(trace);
-							} else {
-								getLog().debug("Trace file for file " + file + "not found");
 							}
+						} catch (Exception e) {
+							getLog().error("Failed to analyze file " + classFile, e);
 						}
-					} catch (Exception e) {
-						getLog().error("Failed to analyze file " + file, e);
 					}
-
 				}
-			});
+			}
 		}
 	}
 
@@ -177,51 +464,154 @@ public abstract class AbstractInstallDebugInfoMojo extends AbstractXtextMojo {
 
 		List<Trace> traces = new ArrayList<>();
 		for (File sourceDirectory : sourceDirectories) {
-			collectTraceInformationForClassFiles(sourceDirectory, traces, traceFileNameProvider);
+			if (TRACE_DISCOVERY_TRACE_FILES.equals(traceDiscovery)) {
+				collectTraceInformationForTraceFiles(sourceDirectory, traces, traceFileNameProvider);
+			} else {
+				collectTraceInformationForClassFiles(sourceDirectory, traces, traceFileNameProvider);
+			}
 		}
 
 		return traces;
 	}
 
 	private void installTrace(Set<String> fileExtensions, ITraceToBytecodeInstaller traceToBytecodeInstaller,
-			Trace trace, TraceFileNameProvider traceFileNameProvider) throws IOException {
+			String installerDescription, Trace trace, TraceFileNameProvider traceFileNameProvider)
+			throws IOException {
 
 		File traceFile = trace.traceFile;
-		File classFile = trace.classFile;
-
-		try (InputStream fis = new FileInputStream(traceFile); BufferedInputStream in = new BufferedInputStream(fis)) {
+		Path classFile = trace.classFile;
+		byte[] bytecode = trace.bytecode != null ? trace.bytecode : java.nio.file.Files.readAllBytes(classFile);
+		trace.bytecode = null;
+		TraceRegionCache.CachedTrace cachedTrace = traceCache.get(traceFile);
+		String traceHash = cachedTrace.getHash();
+		if (manifest != null && manifest.isUnchanged(classFile, DebugInfoManifest.hash(bytecode), traceHash,
+				installerDescription)) {
+			unchanged.incrementAndGet();
+			return;
+		}
 
-			AbstractTraceRegion traceRegion = traceRegionSerializer.readTraceRegionFrom(in);
-			if (!isRelevantFile(fileExtensions, traceRegion)) {
-				return;
+		if (!cachedTrace.isRelevant(fileExtensions, region -> isRelevantFile(fileExtensions, region))) {
+			notInstalled.incrementAndGet();
+			return;
+		}
+		AbstractTraceRegion traceRegion = cachedTrace.getTraceRegion();
+		traceToBytecodeInstaller.setTrace(traceFileNameProvider.getJavaFromTrace(traceFile.getName()), traceRegion);
+		if (getLog().isDebugEnabled()) {
+			getLog().debug("Installing trace " + traceFile + " into:");
+		}
+		byte[] bytecodeWithTraces = traceToBytecodeInstaller.installTrace(bytecode);
+		if (bytecodeWithTraces != null) {
+			if (Arrays.equals(bytecode, bytecodeWithTraces)) {
+				writesAvoided.incrementAndGet();
+			} else {
+				writeClassFile(classFile, bytecodeWithTraces);
+				bytesWritten.addAndGet(bytecodeWithTraces.length);
+			}
+			installed.incrementAndGet();
+			if (manifest != null) {
+				manifest.record(classFile, DebugInfoManifest.hash(bytecodeWithTraces), traceHash,
+						installerDescription);
 			}
-			traceToBytecodeInstaller.setTrace(traceFileNameProvider.getJavaFromTrace(traceFile.getName()), traceRegion);
 			if (getLog().isDebugEnabled()) {
-				getLog().debug("Installing trace " + traceFile + " into:");
+				getLog().debug("  " + classFile);
 			}
-			byte[] bytecodeWithTraces = traceToBytecodeInstaller.installTrace(Files.toByteArray(classFile));
-			if (bytecodeWithTraces != null) {
-				Files.write(bytecodeWithTraces, classFile);
-				if (getLog().isDebugEnabled()) {
-					getLog().debug("  " + classFile);
-				}
-			} else {
-				if (getLog().isDebugEnabled()) {
-					getLog().debug("  No trace installed for " + classFile);
-				}
+		} else {
+			notInstalled.incrementAndGet();
+			if (getLog().isDebugEnabled()) {
+				getLog().debug("  No trace installed for " + classFile);
 			}
 		}
 
 	}
 
-	protected void installTraces(Set<String> fileExtensions, ITraceToBytecodeInstaller traceToBytecodeInstaller,
-			List<Trace> traceToClassFileMap, TraceFileNameProvider traceFileNameProvider) {
-		for (Trace trace : traceToClassFileMap) {
+	/**
+	 * Writes the content to a temporary file next to the class file and moves it
+	 * into place, so that the class file is never left truncated. The temporary
+	 * file is created with the default permissions of the process and takes over
+	 * the ones of the class file it replaces.
+	 * 
+	 * @since 2.31
+	 */
+	protected void writeClassFile(Path target, byte[] content) throws IOException {
+		Path tmpFile = target.resolveSibling(target.getFileName() + ".xtext-tmp");
+		// left over by an aborted run
+		java.nio.file.Files.deleteIfExists(tmpFile);
+		try {
+			try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.wrap(content);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+			if (java.nio.file.Files.exists(target) && java.nio.file.Files.getFileStore(target)
+					.supportsFileAttributeView(PosixFileAttributeView.class)) {
+				java.nio.file.Files.setPosixFilePermissions(tmpFile,
+						java.nio.file.Files.getPosixFilePermissions(target));
+			}
 			try {
-				installTrace(fileExtensions, traceToBytecodeInstaller, trace, traceFileNameProvider);
-			} catch (Exception e) {
-				getLog().error("Error installing trace into " + trace.classFile, e);
+				java.nio.file.Files.move(tmpFile, target, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				java.nio.file.Files.move(tmpFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			java.nio.file.Files.deleteIfExists(tmpFile);
+		}
+	}
+
+	/**
+	 * Installs the traces, in parallel if more than one
+	 * {@link #installThreads install thread} is configured.
+	 * 
+	 * @param traceInstallers      creates a trace installer per thread, as they
+	 *                             are stateful
+	 * @param installerDescription identifies the installer and its settings in
+	 *                             the manifest
+	 */
+	protected void installTraces(Set<String> fileExtensions, Supplier<ITraceToBytecodeInstaller> traceInstallers,
+			String installerDescription, List<Trace> traceToClassFileMap,
+			TraceFileNameProvider traceFileNameProvider) {
+		int threads = Math.min(installThreads, traceToClassFileMap.size());
+		if (threads <= 1) {
+			ITraceToBytecodeInstaller traceToBytecodeInstaller = traceInstallers.get();
+			for (Trace trace : traceToClassFileMap) {
+				installTraceAndLogError(fileExtensions, traceToBytecodeInstaller, installerDescription, trace,
+						traceFileNameProvider);
+			}
+			return;
+		}
+		ThreadLocal<ITraceToBytecodeInstaller> threadInstaller = ThreadLocal.withInitial(traceInstallers);
+		MavenLog4JConfigurator log4JConfigurator = new MavenLog4JConfigurator();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>(traceToClassFileMap.size());
+			for (Trace trace : traceToClassFileMap) {
+				futures.add(executor.submit(log4JConfigurator.propagate(() -> installTraceAndLogError(fileExtensions,
+						threadInstaller.get(), installerDescription, trace, traceFileNameProvider))));
 			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			getLog().error("Interrupted while installing traces", e);
+		} catch (ExecutionException e) {
+			getLog().error("Error installing traces", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void installTraceAndLogError(Set<String> fileExtensions,
+			ITraceToBytecodeInstaller traceToBytecodeInstaller, String installerDescription, Trace trace,
+			TraceFileNameProvider traceFileNameProvider) {
+		try {
+			installTrace(fileExtensions, traceToBytecodeInstaller, installerDescription, trace,
+					traceFileNameProvider);
+		} catch (Exception e) {
+			failed.incrementAndGet();
+			getLog().error("Error installing trace into " + trace.classFile, e);
 		}
 	}
 
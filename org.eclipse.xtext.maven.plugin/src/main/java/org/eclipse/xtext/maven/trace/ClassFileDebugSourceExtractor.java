@@ -15,8 +15,6 @@ import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Opcodes;
 
-import com.google.common.io.Files;
-
 /**
  * @since 2.26
  * @author Heinrich Weichert
@@ -37,7 +35,15 @@ public class ClassFileDebugSourceExtractor {
 	}
 
 	public String getDebugSourceFileName(File classFile) throws IOException {
-		ClassReader cr = new ClassReader(Files.toByteArray(classFile));
+		return getDebugSourceFileName(java.nio.file.Files.readAllBytes(classFile.toPath()));
+	}
+
+	/**
+	 * @param bytecode the content of a class file
+	 * @since 2.31
+	 */
+	public String getDebugSourceFileName(byte[] bytecode) {
+		ClassReader cr = new ClassReader(bytecode);
 		Visitor visitor = new Visitor();
 		cr.accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
 		return visitor.source;
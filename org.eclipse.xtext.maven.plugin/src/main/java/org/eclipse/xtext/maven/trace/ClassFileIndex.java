@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
+
+import com.google.common.io.Files;
+
+/**
+ * The class files of an output directory by their folder relative to the
+ * output directory and the name of the source file they were compiled from.
+ * The output directory is scanned once and queried for every language and
+ * output configuration.
+ * 
+ * @since 2.31
+ */
+public class ClassFileIndex {
+
+	/**
+	 * A class file and the name of its source file.
+	 */
+	public static class Entry {
+
+		private final Path classFile;
+
+		private final String sourceName;
+
+		private byte[] bytecode;
+
+		private Entry(Path classFile, String sourceName, byte[] bytecode) {
+			this.classFile = classFile;
+			this.sourceName = sourceName;
+			this.bytecode = bytecode;
+		}
+
+		public Path getClassFile() {
+			return classFile;
+		}
+
+		public String getSourceName() {
+			return sourceName;
+		}
+
+		/**
+		 * @return the content read by the scan, or <code>null</code> if it wasn't
+		 *         kept or has already been taken. It is handed out only once, as the
+		 *         class file changes when a trace is installed.
+		 */
+		public synchronized byte[] takeBytecode() {
+			byte[] result = bytecode;
+			bytecode = null;
+			return result;
+		}
+	}
+
+	private final Map<Path, List<Entry>> entriesByFolder = new LinkedHashMap<>();
+
+	private int classFiles;
+
+	private long scanMillis;
+
+	/**
+	 * @param root        the output directory, may be the root of a jar file
+	 *                    system
+	 * @param extractor   reads the source file name of a class file
+	 * @param keepContent whether the content of a class file in the given
+	 *                    relative folder with the given source file name is
+	 *                    kept for the trace installation
+	 * @param onError     is notified about class files that can't be read
+	 */
+	public static ClassFileIndex scan(Path root, ClassFileDebugSourceExtractor extractor,
+			BiPredicate<Path, String> keepContent, BiConsumer<Path, Exception> onError) throws IOException {
+		ClassFileIndex index = new ClassFileIndex();
+		long start = System.currentTimeMillis();
+		try (Stream<Path> walker = java.nio.file.Files.walk(root)) {
+			walker.filter(path -> "class".equals(Files.getFileExtension(path.getFileName().toString())))
+					.forEach(path -> {
+						index.classFiles++;
+						try {
+							byte[] bytecode = java.nio.file.Files.readAllBytes(path);
+							String sourceName = extractor.getDebugSourceFileName(bytecode);
+							if (sourceName == null) {
+								return;
+							}
+							Path folder = root.relativize(path.getParent());
+							index.entriesByFolder.computeIfAbsent(folder, k -> new ArrayList<>())
+									.add(new Entry(path, sourceName,
+											keepContent.test(folder, sourceName) ? bytecode : null));
+						} catch (Exception e) {
+							onError.accept(path, e);
+						}
+					});
+		}
+		index.scanMillis = System.currentTimeMillis() - start;
+		return index;
+	}
+
+	/**
+	 * @return the entries by their folder relative to the output directory
+	 */
+	public Map<Path, List<Entry>> getEntriesByFolder() {
+		return entriesByFolder;
+	}
+
+	public int getClassFileCount() {
+		return classFiles;
+	}
+
+	public long getScanMillis() {
+		return scanMillis;
+	}
+
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Records per class file the hash of its content after the trace has been
+ * installed, the hash of the trace file and the installer, so that unchanged
+ * class files are neither processed nor rewritten again.
+ * <p>
+ * Only the entries recorded or confirmed in the current run are stored, so
+ * deleted class files drop out of the manifest.
+ * 
+ * @since 2.31
+ */
+public class DebugInfoManifest {
+
+	private final File file;
+
+	private final Map<String, String> previousEntries = new ConcurrentHashMap<>();
+
+	private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+	public DebugInfoManifest(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Reads the manifest of the previous run, if any.
+	 */
+	public void load() throws IOException {
+		if (!file.isFile()) {
+			return;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			properties.load(in);
+		}
+		for (String classFile : properties.stringPropertyNames()) {
+			previousEntries.put(classFile, properties.getProperty(classFile));
+		}
+	}
+
+	/**
+	 * @return whether the given trace has already been installed into the class
+	 *         file with the given installer. If so, the entry is kept.
+	 */
+	public boolean isUnchanged(Path classFile, String classHash, String traceHash, String installer) {
+		String key = classFile.toUri().toString();
+		String entry = toEntry(classHash, traceHash, installer);
+		if (entry.equals(previousEntries.get(key))) {
+			entries.put(key, entry);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Records the content of a class file after the trace has been installed.
+	 */
+	public void record(Path classFile, String classHash, String traceHash, String installer) {
+		entries.put(classFile.toUri().toString(), toEntry(classHash, traceHash, installer));
+	}
+
+	/**
+	 * Writes the entries of this run, replacing the previous manifest atomically.
+	 */
+	public void save() throws IOException {
+		Properties properties = new Properties();
+		properties.putAll(entries);
+		file.getParentFile().mkdirs();
+		File tmpFile = new File(file.getPath() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmpFile.toPath())) {
+			properties.store(out, "Xtext installed debug information");
+		}
+		Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public static String hash(byte[] content) {
+		return Hashing.murmur3_128().hashBytes(content).toString();
+	}
+
+	private static String toEntry(String classHash, String traceHash, String installer) {
+		return classHash + ';' + traceHash + ';' + installer;
+	}
+
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Attaches trace (debug) information to the classes of an already packaged jar
+ * file. The class files are rewritten inside the jar, all other entries are
+ * copied unchanged, so the jar doesn't have to be extracted and repackaged.
+ *
+ * @since 2.31
+ */
+@Mojo(name = "install-debug-info-jar", defaultPhase = LifecyclePhase.PACKAGE, threadSafe = true)
+public class InstallDebugInfoJarMojo extends AbstractInstallDebugInfoMojo {
+
+	/**
+	 * The jar file to install the debug information into.
+	 *
+	 * @since 2.31
+	 */
+	@Parameter(property = "xtext.installDebugInfo.jarFile", defaultValue = "${project.build.directory}/${project.build.finalName}.jar")
+	private File jarFile;
+
+	private FileSystem jarFileSystem;
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		if (!jarFile.isFile()) {
+			getLog().info("Unable to attach trace files, jar file " + jarFile + " does not exist");
+			return;
+		}
+		try (FileSystem fileSystem = FileSystems.newFileSystem(jarFile.toPath(), (ClassLoader) null)) {
+			jarFileSystem = fileSystem;
+			super.execute();
+		} catch (IOException e) {
+			throw new MojoExecutionException("Failed to update the jar file " + jarFile, e);
+		} finally {
+			jarFileSystem = null;
+		}
+	}
+
+	@Override
+	protected File getOutputDirectory() {
+		return jarFile;
+	}
+
+	@Override
+	protected Path getClassFileRoot() {
+		return jarFileSystem.getPath("/");
+	}
+
+	/**
+	 * Replaces the entry in the jar file. The jar file itself is written once
+	 * when its file system is closed.
+	 */
+	@Override
+	protected void writeClassFile(Path target, byte[] content) throws IOException {
+		Files.write(target, content);
+	}
+
+	@Override
+	protected String getManifestName() {
+		return "install-debug-info-jar.properties";
+	}
+
+}
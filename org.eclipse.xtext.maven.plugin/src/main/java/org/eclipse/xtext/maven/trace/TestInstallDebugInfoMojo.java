@@ -27,4 +27,9 @@ public class TestInstallDebugInfoMojo extends AbstractInstallDebugInfoMojo {
 		return resolveFilePath(getProject().getBuild().getTestOutputDirectory());
 	}
 
+	@Override
+	protected String getManifestName() {
+		return "test-install-debug-info.properties";
+	}
+
 }
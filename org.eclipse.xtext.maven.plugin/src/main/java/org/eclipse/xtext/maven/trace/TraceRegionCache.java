@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2023 itemis AG (http://www.itemis.eu) and others.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.xtext.maven.trace;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+import org.eclipse.xtext.generator.trace.AbstractTraceRegion;
+import org.eclipse.xtext.generator.trace.TraceRegionSerializer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.io.Files;
+
+/**
+ * A bounded cache of trace files for the duration of a mojo run, keyed by
+ * path, modification time and size. A trace file is shared by the top level,
+ * inner and anonymous classes compiled from the same Java file, and visited
+ * once per language and output configuration, but read and deserialized only
+ * once.
+ * 
+ * @since 2.31
+ */
+public class TraceRegionCache {
+
+	private final Cache<String, CachedTrace> cache;
+
+	private final TraceRegionSerializer traceRegionSerializer;
+
+	public TraceRegionCache(TraceRegionSerializer traceRegionSerializer, int maximumSize) {
+		this.traceRegionSerializer = traceRegionSerializer;
+		this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+	public CachedTrace get(File traceFile) throws IOException {
+		String key = traceFile.getAbsolutePath() + '@' + traceFile.lastModified() + ':' + traceFile.length();
+		try {
+			return cache.get(key, () -> new CachedTrace(Files.toByteArray(traceFile)));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Failed to read trace file " + traceFile, e.getCause());
+		}
+	}
+
+	public CacheStats getStatistics() {
+		return cache.stats();
+	}
+
+	/**
+	 * The content of a trace file, deserialized on first use.
+	 */
+	public class CachedTrace {
+
+		private final String hash;
+
+		private byte[] content;
+
+		private AbstractTraceRegion traceRegion;
+
+		private final Map<Set<String>, Boolean> relevance = new ConcurrentHashMap<>();
+
+		private CachedTrace(byte[] content) {
+			this.content = content;
+			this.hash = DebugInfoManifest.hash(content);
+		}
+
+		public String getHash() {
+			return hash;
+		}
+
+		public synchronized AbstractTraceRegion getTraceRegion() throws IOException {
+			if (traceRegion == null) {
+				traceRegion = traceRegionSerializer.readTraceRegionFrom(new ByteArrayInputStream(content));
+				content = null;
+			}
+			return traceRegion;
+		}
+
+		/**
+		 * @return whether the trace is relevant for the given file extensions,
+		 *         classified once per set of file extensions.
+		 */
+		public boolean isRelevant(Set<String> fileExtensions, Predicate<AbstractTraceRegion> classifier)
+				throws IOException {
+			Boolean result = relevance.get(fileExtensions);
+			if (result == null) {
+				result = classifier.test(getTraceRegion());
+				relevance.put(fileExtensions, result);
+			}
+			return result;
+		}
+	}
+
+}
@@ -10,10 +10,21 @@ package org.eclipse.xtext.maven.plugin;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.maven.it.VerificationException;
@@ -28,6 +39,9 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.google.common.base.Joiner;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 
 public class XtextGeneratorIT {
 
@@ -147,6 +161,218 @@ public class XtextGeneratorIT {
 		verifier.verifyFilePresent(verifier.getBasedir() + "/target/xtext-temp/stub-classes/IntegrationTestXbase.class");
 	}
 
+	@Test
+	public void unusedLanguage() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("unused-language");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java");
+		verifier.verifyTextInLog("Skipped 1 language(s) without files in the source roots or on the class path: "
+				+ "org.eclipse.xtext.xbase.XbaseStandaloneSetup");
+	}
+
+	@Test
+	public void buildReport() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("purexbase", false, Arrays.asList("-Dxtext.buildReport=true"), "clean",
+				"verify");
+		String report = verifier.getBasedir() + "/target/xtext-build-report.json";
+		verifier.verifyFilePresent(report);
+		verifier.verifyFileContentMatches(report, "(?s).*\"succeeded\": true.*");
+		verifier.verifyFileContentMatches(report,
+				"(?s).*\"name\": \"language injector\", \"language\": \"org.eclipse.xtext.purexbase.PureXbaseStandaloneSetup\".*");
+		verifier.verifyFileContentMatches(report, "(?s).*\"name\": \"parsing\", \"language\": \"xbase\".*");
+		for (String phase : Arrays.asList("indexing", "linking", "validation", "generation")) {
+			verifier.verifyFileContentMatches(report,
+					"(?s).*\"name\": \"" + phase + "\", \"language\": \"xbase\", \"wallMillis\": [0-9]+.*");
+		}
+		verifier.verifyFileContentMatches(report,
+				"(?s).*\"name\": \"writing\", \"language\": \"org.eclipse.xtext.purexbase.PureXbaseStandaloneSetup\".*");
+	}
+
+	@Test
+	public void asyncLog() throws Exception {
+		String project = "async-log";
+		// Duplicates.xbase has five unused variables, Limit1-4.xbase one each
+		Verifier verifier = verifyErrorFreeLog(project, false, Arrays.asList("-Dxtext.asyncLog=true"), "clean",
+				"verify");
+		List<String> log = verifier.loadFile(verifier.getBasedir(), verifier.getLogFileName(), false);
+		assertEquals(5, countUnusedVariableWarnings(log));
+		verifier.verifyTextInLog("Most repeated issues:");
+		verifier.verifyTextInLog("(repeated 4 time(s))");
+		verifier.verifyTextInLog("WARNING: 5 issue(s) logged, 4 repeated suppressed.");
+
+		// a queue of one event blocks the builder on every message, nothing may get lost
+		verifier = verifyErrorFreeLog(project, false,
+				Arrays.asList("-Dxtext.asyncLog=true", "-Dxtext.asyncLog.maxIssues=2", "-Dxtext.asyncLog.queueSize=1"),
+				"clean", "verify");
+		log = verifier.loadFile(verifier.getBasedir(), verifier.getLogFileName(), false);
+		assertEquals(2, countUnusedVariableWarnings(log));
+		Pattern summary = Pattern.compile(
+				".*WARNING: 2 issue\\(s\\) logged, (\\d+) repeated and (\\d+) above the limit of 2 suppressed\\.");
+		int suppressed = -1;
+		for (String line : log) {
+			Matcher matcher = summary.matcher(line);
+			if (matcher.matches()) {
+				suppressed = Integer.parseInt(matcher.group(1)) + Integer.parseInt(matcher.group(2));
+			}
+		}
+		assertEquals("Issues logged or suppressed", 7, suppressed);
+		for (String model : new String[] { "Duplicates", "Limit1", "Limit2", "Limit3", "Limit4" }) {
+			verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/" + model + ".java");
+		}
+	}
+
+	private int countUnusedVariableWarnings(List<String> log) {
+		int count = 0;
+		for (String line : log) {
+			if (line.startsWith("[WARNING] WARNING:") && line.contains("is not used")) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void skipUnchanged() throws Exception {
+		String project = "skip-unchanged";
+		Verifier verifier = verifyErrorFreeLog(project);
+		verifier.verifyTextInLog("Generating, no fingerprint of a previous successful run found.");
+		String output = verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java";
+		verifier.verifyFilePresent(output);
+		long lastModified = new File(output).lastModified();
+
+		verifier = verifyErrorFreeLog(project, false, "verify");
+		verifier.verifyTextInLog("Skipped, inputs are unchanged since the last successful run.");
+		assertEquals(lastModified, new File(output).lastModified());
+
+		String modelFile = verifier.getBasedir() + "/src/IntegrationTestXbase.xbase";
+		FileUtils.fileWrite(modelFile, FileUtils.fileRead(modelFile) + "\n// changed");
+		verifier = verifyErrorFreeLog(project, false, "verify");
+		verifier.verifyTextInLog("Generating, changed since the last successful run:");
+	}
+
+	@Test
+	public void writeChangedFilesOnly() throws Exception {
+		String project = "trace";
+		Verifier verifier = verifyErrorFreeLog(project);
+		String output = verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java";
+		verifier.verifyFilePresent(output);
+		long lastModified = new File(output).lastModified();
+
+		verifier = verifyErrorFreeLog(project, false, "clean", "verify");
+		verifier.verifyTextInLog("Output 'DEFAULT_OUTPUT': 0 file(s) written,");
+		assertEquals(lastModified, new File(output).lastModified());
+	}
+
+	@Test
+	public void buildCache() throws Exception {
+		String project = "trace";
+		List<String> cliOptions = Arrays.asList("-Dxtext.buildCache=true",
+				"-Dxtext.buildCache.directory=" + new File(testDir, "build-cache").getAbsolutePath());
+		Verifier verifier = verifyErrorFreeLog(project, false, cliOptions, "clean", "verify");
+		verifier.verifyTextInLog("Build cache miss for ");
+		String output = verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java";
+		verifier.verifyFilePresent(output);
+		String generated = FileUtils.fileRead(output);
+
+		FileUtils.forceDelete(output);
+		// not generated by the cached run, so the restore deletes it
+		String stale = verifier.getBasedir() + "/src-gen/StaleXbase.java";
+		FileUtils.fileWrite(stale, "public class StaleXbase {}");
+		verifier = verifyErrorFreeLog(project, false, cliOptions, "clean", "verify");
+		verifier.verifyTextInLog("Build cache hit for ");
+		verifier.verifyTextInLog("1 hit(s), 1 miss(es)");
+		assertEquals(generated, FileUtils.fileRead(output));
+		verifier.verifyFileNotPresent(stale);
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/classes/IntegrationTestXbase.class");
+		// the temporary directory is restored after the clean as well
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/xtext-temp/main-index.properties");
+	}
+
+	@Test
+	public void fork() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("trace", false,
+				Arrays.asList("-Dxtext.fork=true", "-Dxtext.fork.jvmArgs=-Xmx512m"), "clean", "verify");
+		verifier.verifyTextInLog("Started the builder worker");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/classes/IntegrationTestXbase.class");
+	}
+
+	@Test
+	public void forkSourceFilter() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("source-filter", false, Arrays.asList("-Dxtext.fork=true"), "clean",
+				"verify");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java");
+		verifier.verifyFileNotPresent(verifier.getBasedir() + "/src-gen/IgnoredXbase.java");
+		verifier.verifyFileNotPresent(verifier.getBasedir() + "/src-gen/ExcludedXbase.java");
+		verifier.verifyTextInLog("Skipped 2 source root(s) without models: ");
+	}
+
+	@Test
+	public void forkReuseMainIndex() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("reuse-main-index", false, Arrays.asList("-Dxtext.fork=true"),
+				"clean", "verify");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-test-gen/SimpleTestClassXbase.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/xtext-temp/main-index.properties");
+		verifier.verifyTextInLog("Using the main scope index of 1 model(s)");
+	}
+
+	@Test
+	public void forkUnsupportedSettings() throws Exception {
+		Verifier verifier = newVerifier("trace");
+		verifier.addCliOption("-Dxtext.fork=true");
+		verifier.addCliOption("-Dxtext.asyncLog=true");
+		try {
+			verifier.executeGoals(Arrays.asList("clean", "verify"));
+			fail("The build must fail.");
+		} catch (VerificationException e) {
+			// expected
+		}
+		verifier.verifyTextInLog("The builder worker (xtext.fork) doesn't support asyncLog.");
+		verifier.resetStreams();
+	}
+
+	@Test
+	public void precomputedResourceDescriptions() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("precomputed");
+		String upstream = verifier.getBasedir() + "/upstream";
+		verifier.verifyFilePresent(upstream + "/target/classes/META-INF/xtext/resource-descriptions.bin");
+		try (JarFile jar = new JarFile(upstream + "/target/precomputed-upstream-IT-SNAPSHOT.jar")) {
+			assertTrue(jar.getEntry("META-INF/xtext/resource-descriptions.bin") != null);
+		}
+		List<String> log = verifier.loadFile(verifier.getBasedir(), verifier.getLogFileName(), false);
+		Pattern exported = Pattern.compile(".*Exported ([0-9]+) object\\(s\\) of 1 model\\(s\\) to .*");
+		int exportedObjects = -1;
+		for (String line : log) {
+			Matcher matcher = exported.matcher(line);
+			if (matcher.matches()) {
+				exportedObjects = Integer.parseInt(matcher.group(1));
+			}
+		}
+		assertTrue("exported objects: " + exportedObjects, exportedObjects > 0);
+		verifier.verifyTextInLog("Using precomputed resource descriptions of 1 model(s) from 1 jar(s).");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/downstream/src-gen/DownstreamXbase.java");
+	}
+
+	@Test
+	public void asyncOutput() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("async-output");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase2.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/classes/IntegrationTestXbase2.class");
+		verifier.verifyTextInLog("Output 'DEFAULT_OUTPUT': ");
+	}
+
+	@Test
+	public void sourceFilter() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("source-filter");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java");
+		verifier.verifyFileNotPresent(verifier.getBasedir() + "/src-gen/IgnoredXbase.java");
+		// excluded next to an included model in the same source root
+		verifier.verifyFileNotPresent(verifier.getBasedir() + "/src-gen/ExcludedXbase.java");
+		verifier.verifyTextInLog("directories (1 excluded)");
+		verifier.verifyTextInLog("1 model(s) (1 excluded)");
+		verifier.verifyTextInLog("Skipped 2 source root(s) without models: ");
+	}
+
 	@Test
 	public void clustering() throws Exception {
 		Verifier verifier = verifyErrorFreeLog("clustering");
@@ -156,6 +382,108 @@ public class XtextGeneratorIT {
 		verifier.verifyFilePresent(verifier.getBasedir() + "/target/xtext-temp/stub-classes/IntegrationTestXbase2.class");
 	}
 
+	@Test
+	public void adaptiveClustering() throws Exception {
+		String project = "adaptive-clustering";
+		File profileDirectory = new File(testDir, "clustering-profiles");
+		// a profile that allows one resource per cluster
+		String location = Hashing.murmur3_128().hashString(
+				new File(testDir, project).toPath().toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8)
+				.toString();
+		File profile = new File(profileDirectory, "adaptive-clustering-test-" + location + "-clustering.properties");
+		profileDirectory.mkdirs();
+		FileUtils.fileWrite(profile.getPath(), "bytesPerResource=" + Long.MAX_VALUE + "\n");
+
+		Verifier verifier = verifyErrorFreeLog(project, false,
+				Arrays.asList("-Dxtext.clustering.profileDirectory=" + profileDirectory.getAbsolutePath()), "clean",
+				"verify");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/IntegrationTestXbase2.java");
+		verifier.verifyTextInLog("retained per resource in the previous run, initial cluster size 1.");
+		verifier.verifyTextInLog(" resource reload(s), cluster size ");
+		verifier.verifyFileNotPresent(verifier.getBasedir() + "/target/xtext-temp/clustering.properties");
+		assertTrue(profile.isFile());
+	}
+
+	@Test
+	public void dependencyClustering() throws Exception {
+		String project = "dependency-clustering";
+		File profileDirectory = new File(testDir, "dependency-profiles");
+		FileUtils.deleteDirectory(profileDirectory);
+		String profileOption = "-Dxtext.clustering.profileDirectory=" + profileDirectory.getAbsolutePath();
+
+		Verifier verifier = verifyErrorFreeLog(project, false, Arrays.asList(profileOption), "clean", "verify");
+		verifier.verifyTextInLog("Dependency clustering: no cross references of a previous run");
+		verifier.verifyFileNotPresent(verifier.getBasedir() + "/target/xtext-temp/dependencies.txt");
+		File[] graphs = profileDirectory.listFiles((dir, name) -> name.endsWith("-dependencies.txt"));
+		assertTrue(graphs != null && graphs.length > 0);
+
+		// the graph of the first run survives the clean and groups the cycles
+		verifier = verifyErrorFreeLog(project, false, Arrays.asList(profileOption), "clean", "verify");
+		verifier.verifyTextInLog("Dependency clustering: 4 of 4 resource(s) in 2 strongly connected group(s)");
+		verifier.verifyTextInLog("Dependency clustering: 1 cluster(s), 0 split(s) inside a strongly connected group");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/CycleA1.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/CycleB2.java");
+
+		// without free memory the clusters are capped at two resources. In load order
+		// both cycles straddle the boundary, as the source roots separate them.
+		verifier = verifyErrorFreeLog(project, false,
+				Arrays.asList(profileOption, "-Dclustering.minimumFreeMemory=1000000"), "clean", "verify");
+		List<String> log = verifier.loadFile(verifier.getBasedir(), verifier.getLogFileName(), false);
+		Pattern clusters = Pattern.compile(".*Dependency clustering: ([0-9]+) cluster\\(s\\), ([0-9]+) split\\(s\\).*");
+		Pattern avoided = Pattern.compile(".*Dependency clustering: ([0-9]+) estimated reload\\(s\\) in load order, ([0-9]+) in the processed order, ([0-9]+) reload\\(s\\) avoided\\..*");
+		int maxClusters = 0;
+		int splits = -1;
+		int maxAvoided = -1;
+		for (String line : log) {
+			Matcher matcher = clusters.matcher(line);
+			if (matcher.matches()) {
+				maxClusters = Math.max(maxClusters, Integer.parseInt(matcher.group(1)));
+				splits = Math.max(splits, Integer.parseInt(matcher.group(2)));
+			}
+			matcher = avoided.matcher(line);
+			if (matcher.matches()) {
+				assertEquals(line, 0, Integer.parseInt(matcher.group(2)));
+				maxAvoided = Math.max(maxAvoided, Integer.parseInt(matcher.group(3)));
+			}
+		}
+		assertTrue("clusters: " + maxClusters, maxClusters > 1);
+		assertEquals(0, splits);
+		assertEquals(4, maxAvoided);
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/CycleA1.java");
+	}
+
+	@Test
+	public void reuseMainIndex() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("reuse-main-index");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-gen/SimpleClassXbase.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-test-gen/SimpleTestClassXbase.java");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/xtext-temp/main-index.properties");
+		verifier.verifyTextInLog("Using the main scope index of 1 model(s)");
+	}
+
+	@Test
+	public void reuseMainIndexAfterChange() throws Exception {
+		String project = "reuse-main-index";
+		Verifier verifier = verifyErrorFreeLog(project);
+		File model = new File(verifier.getBasedir(), "src/main/java/SimpleClassXbase.xbase");
+		FileUtils.fileWrite(model.getPath(), "var listOfNumbers = #[1, 2, 3]\nlistOfNumbers\n");
+
+		verifier = verifyErrorFreeLog(project, false, "verify");
+		assertTrue(FileUtils.fileRead(verifier.getBasedir() + "/src-gen/SimpleClassXbase.java")
+				.contains("listOfNumbers"));
+		// the index read by testGenerate describes the changed model
+		Properties hashes = new Properties();
+		try (InputStream in = new FileInputStream(verifier.getBasedir() + "/target/xtext-temp/main-index.properties")) {
+			hashes.load(in);
+		}
+		File copiedModel = new File(verifier.getBasedir(), "target/classes/SimpleClassXbase.xbase");
+		assertEquals(Files.asByteSource(copiedModel).hash(Hashing.murmur3_128()).toString(),
+				hashes.getProperty("SimpleClassXbase.xbase"));
+		verifier.verifyTextInLog("Using the main scope index of 1 model(s)");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/src-test-gen/SimpleTestClassXbase.java");
+	}
+
 	@Test
 	public void outputPerGoal() throws Exception {
 		Verifier verifier = verifyErrorFreeLog("output-per-goal");
@@ -229,6 +557,103 @@ public class XtextGeneratorIT {
 		assertTraceSourceFileName(expectedSourceName, classFile);
 	}
 
+	@Test
+	public void traceIncrementalInstallation() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("trace");
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/xtext-temp/install-debug-info.properties");
+		File classFile = new File(verifier.getBasedir() + "/target/classes/IntegrationTestXbase.class");
+		long lastModified = classFile.lastModified();
+
+		verifier = verifyErrorFreeLog("trace", false, "xtext:install-debug-info");
+		verifier.verifyTextInLog("Debug information: 0 class file(s) installed,");
+		assertEquals(lastModified, classFile.lastModified());
+	}
+
+	@Test
+	public void traceFileDiscovery() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("trace", false,
+				Arrays.asList("-Dxtext.installDebugInfo.discovery=traceFiles"), "clean", "verify");
+		assertTraceSourceFileName("IntegrationTestXbase.xbase",
+				new File(verifier.getBasedir() + "/target/classes/IntegrationTestXbase.class"));
+	}
+
+	@Test
+	public void traceParallelInstallation() throws Exception {
+		Verifier verifier = verifyErrorFreeLog("trace", false,
+				Arrays.asList("-Dxtext.installDebugInfo.threads=4"), "clean", "verify");
+		for (String className : Arrays.asList("IntegrationTestXbase", "IntegrationTestXbase2", "IntegrationTestXbase3",
+				"IntegrationTestXbase4")) {
+			assertTraceSourceFileName(className + ".xbase",
+					new File(verifier.getBasedir() + "/target/classes/" + className + ".class"));
+		}
+	}
+
+	@Test
+	public void traceJarInstallation() throws Exception {
+		// without the install-debug-info execution, only the jar goal can install the traces
+		Verifier verifier = verifyErrorFreeLog("trace", false, Arrays.asList("-P", "untraced-classes"), "clean",
+				"package", "xtext:install-debug-info-jar");
+		assertTraceSourceFileName("IntegrationTestXbase.java",
+				new File(verifier.getBasedir() + "/target/classes/IntegrationTestXbase.class"));
+		List<String> log = verifier.loadFile(verifier.getBasedir(), verifier.getLogFileName(), false);
+		Pattern installed = Pattern.compile(".*Debug information: ([0-9]+) class file\\(s\\) installed, .*");
+		List<Integer> counts = new ArrayList<>();
+		for (String line : log) {
+			Matcher matcher = installed.matcher(line);
+			if (matcher.matches()) {
+				counts.add(Integer.parseInt(matcher.group(1)));
+			}
+		}
+		assertEquals(1, counts.size());
+		assertTrue("installed: " + counts.get(0), counts.get(0) > 0);
+		verifier.verifyFilePresent(verifier.getBasedir() + "/target/xtext-temp/install-debug-info-jar.properties");
+		try (JarFile jarFile = new JarFile(verifier.getBasedir() + "/target/trace-test-IT-SNAPSHOT.jar")) {
+			byte[] bytecode = ByteStreams
+					.toByteArray(jarFile.getInputStream(jarFile.getEntry("IntegrationTestXbase.class")));
+			assertEquals("Source file name doesn't match", "IntegrationTestXbase.xbase",
+					new ClassFileDebugSourceExtractor().getDebugSourceFileName(bytecode));
+		}
+	}
+
+	@Test
+	public void parallelBuild() throws Exception {
+		String project = "parallel";
+		String[] modules = { "a", "b", "c", "d" };
+		// warms up the JVM and the injector caches before the timed builds
+		verifyErrorFreeLog(project);
+		long start = System.nanoTime();
+		verifyErrorFreeLog(project, false, Arrays.asList("-T", "1"), "clean", "verify");
+		long sequentialTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		Verifier verifier = verifyErrorFreeLog(project, false, Arrays.asList("-T", "4", "-Dxtext.buildReport=true"),
+				"clean", "verify");
+		long parallelTime = System.nanoTime() - start;
+		System.out.println("parallelBuild: -T 1 took " + sequentialTime / 1000000 + "ms, -T 4 took "
+				+ parallelTime / 1000000 + "ms, speedup " + String.format("%.2f", (double) sequentialTime / parallelTime));
+		// loose, as the modules are small and the machine may have few cores
+		assertTrue("-T 4 took " + parallelTime / 1000000 + "ms, -T 1 took " + sequentialTime / 1000000 + "ms",
+				parallelTime < sequentialTime * 3 / 2);
+		for (String module : modules) {
+			String moduleDir = verifier.getBasedir() + "/module-" + module;
+			String className = "Parallel" + module.toUpperCase() + "1";
+			for (int i = 1; i <= 3; i++) {
+				verifier.verifyFilePresent(moduleDir + "/src-gen/Parallel" + module.toUpperCase() + i + ".java");
+			}
+			assertTraceSourceFileName(className + ".xbase",
+					new File(moduleDir + "/target/classes/" + className + ".class"));
+			// the builder steps and the parsed models of each execution end up in its own report
+			String report = moduleDir + "/target/xtext-build-report.json";
+			verifier.verifyFilePresent(report);
+			verifier.verifyFileContentMatches(report,
+					"(?s).*\"execution\": \"org.eclipse.xtext:parallel-module-" + module + ":jar:IT-SNAPSHOT\".*");
+			verifier.verifyFileContentMatches(report, "(?s).*\"succeeded\": true.*");
+			verifier.verifyFileContentMatches(report,
+					"(?s).*\"name\": \"generation\", \"language\": \"xbase\", [^}]*\"resources\": 3\\}.*");
+			verifier.verifyFileContentMatches(report,
+					"(?s).*\"name\": \"parsing\", \"language\": \"xbase\", [^}]*\"resources\": 3\\}.*");
+		}
+	}
+
 	private void assertTraceSourceFileName(String expectedSourceName, File file) throws IOException {
 		String sourceName = new ClassFileDebugSourceExtractor().getDebugSourceFileName(file);
 		assertEquals("Source file name doesn't match", expectedSourceName, sourceName);
@@ -240,6 +665,11 @@ public class XtextGeneratorIT {
 
 	private static Verifier verifyErrorFreeLog(String pathToTestProject, boolean updateSnapshots, String... goals)
 			throws IOException, VerificationException {
+		return verifyErrorFreeLog(pathToTestProject, updateSnapshots, Collections.emptyList(), goals);
+	}
+
+	private static Verifier verifyErrorFreeLog(String pathToTestProject, boolean updateSnapshots,
+			List<String> cliOptions, String... goals) throws IOException, VerificationException {
 		if (goals == null || goals.length < 1) {
 			throw new IllegalArgumentException("You need to pass at least one goal to verify log");
 		}
@@ -247,6 +677,9 @@ public class XtextGeneratorIT {
 		if (updateSnapshots) {
 			verifier.addCliOption("-U");
 		}
+		for (String cliOption : cliOptions) {
+			verifier.addCliOption(cliOption);
+		}
 		for (String goal : goals) {
 			verifier.executeGoal(goal);
 		}